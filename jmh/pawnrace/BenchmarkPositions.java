@@ -0,0 +1,41 @@
+package pawnrace;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+// The standard position suite: a spread of gap pairs, each played out a few random
+// moves from a fixed seed so the benchmarks always see the same positions.
+class BenchmarkPositions {
+
+    private static final String[] GAPS = {"ah", "ha", "de", "ed", "aa", "hh", "cf", "bg"};
+    private static final int[] PLIES = {0, 4, 8, 12, 16};
+    private static final long SEED = 2018;
+
+    static Position[] suite() {
+        Zobrist.GenerateRandomNumbers();
+        Bitboard.initialize();
+        Random random = new Random(SEED);
+        ArrayList<Position> positions = new ArrayList<>();
+        int[] moves = new int[Game.MAX_MOVES];
+        for (String gaps : GAPS) {
+            for (int plies : PLIES) {
+                Board board = new Board(gaps.charAt(0), gaps.charAt(1));
+                int color = Color.WHITE;
+                int lastMove = Move.NONE;
+                for (int i = 0; i < plies; i++) {
+                    Bitboard bb = new Bitboard(board);
+                    int moveCount = Game.getAllValidMoves(bb, color,
+                            board.getEnPassantColumn(lastMove), moves);
+                    if (moveCount == 0 || bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0) {
+                        break;
+                    }
+                    lastMove = moves[random.nextInt(moveCount)];
+                    board.applyMove(lastMove);
+                    color = -color;
+                }
+                positions.add(new Position(board, color, lastMove));
+            }
+        }
+        return positions.toArray(new Position[0]);
+    }
+}
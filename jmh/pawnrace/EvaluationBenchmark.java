@@ -0,0 +1,71 @@
+package pawnrace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvaluationBenchmark {
+
+    private static final int SUITE_SIZE = 40;
+
+    private Board[] boards;
+    private Bitboard[] bitboards;
+    private int[] enPassantColumns;
+
+    @Setup
+    public void setup() {
+        Position[] positions = BenchmarkPositions.suite();
+        if (positions.length != SUITE_SIZE) {
+            throw new IllegalStateException("Suite has " + positions.length + " positions");
+        }
+        boards = new Board[positions.length];
+        bitboards = new Bitboard[positions.length];
+        enPassantColumns = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            boards[i] = positions[i].board;
+            bitboards[i] = new Bitboard(positions[i].board);
+            enPassantColumns[i] = positions[i].board.getEnPassantColumn(positions[i].lastMove);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int initialEval() {
+        int sum = 0;
+        for (int i = 0; i < bitboards.length; i++) {
+            sum += Evaluation.initialEval(bitboards[i], enPassantColumns[i]);
+        }
+        return sum;
+    }
+
+    // Rebuilding the accumulator from scratch, what applyMove/unapplyMove save
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int accumulate() {
+        int sum = 0;
+        for (Bitboard bb : bitboards) {
+            sum += Evaluation.accumulate(bb.w, bb.b);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int staticEval() {
+        int sum = 0;
+        for (Board board : boards) {
+            sum += Evaluation.staticEval(board);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,124 @@
+package pawnrace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Every benchmark runs over the whole suite, the scores are per position
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveGenerationBenchmark {
+
+    private static final int SUITE_SIZE = 40;
+
+    private Position[] positions;
+    private int[] enPassantColumns;
+    private int[] moves;
+    private Bitboard view;
+
+    @Setup
+    public void setup() {
+        positions = BenchmarkPositions.suite();
+        if (positions.length != SUITE_SIZE) {
+            throw new IllegalStateException("Suite has " + positions.length + " positions");
+        }
+        enPassantColumns = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            enPassantColumns[i] = positions[i].board.getEnPassantColumn(positions[i].lastMove);
+        }
+        moves = new int[Game.MAX_MOVES];
+        view = new Bitboard();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int getAllValidMoves() {
+        int count = 0;
+        for (int i = 0; i < positions.length; i++) {
+            count += Game.getAllValidMoves(view.set(positions[i].board), positions[i].color,
+                    enPassantColumns[i], moves);
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public void getAllValidMovesObjects(Blackhole blackhole) {
+        for (int i = 0; i < positions.length; i++) {
+            blackhole.consume(Game.getAllValidMoves(new Bitboard(positions[i].board),
+                    positions[i].color, enPassantColumns[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int countValidMoves() {
+        int count = 0;
+        for (int i = 0; i < positions.length; i++) {
+            count += Game.countValidMoves(view.set(positions[i].board), positions[i].color,
+                    enPassantColumns[i]);
+        }
+        return count;
+    }
+
+    // Pops every white pawn the way the old move generator did
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int firstBit() {
+        int sum = 0;
+        for (Position position : positions) {
+            // FirstBit shifts arithmetically so it can't see the top rank
+            long pawns = position.board.getWhiteBitboard() & 0x00ffffffffffffffL;
+            int i = 0;
+            while (pawns != 0) {
+                IntLong fb = Bitboard.FirstBit(pawns);
+                i += fb.i;
+                sum += i;
+                pawns = fb.l;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int numberOfTrailingZeros() {
+        int sum = 0;
+        for (Position position : positions) {
+            long pawns = position.board.getWhiteBitboard() & 0x00ffffffffffffffL;
+            while (pawns != 0) {
+                sum += Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public void bitboardConstruction(Blackhole blackhole) {
+        for (Position position : positions) {
+            blackhole.consume(new Bitboard(position.board));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUITE_SIZE)
+    public int bitboardPawnLists() {
+        int count = 0;
+        for (Position position : positions) {
+            Bitboard bb = new Bitboard(position.board);
+            count += bb.getWhitePawns().size() + bb.getBlackPawns().size();
+        }
+        return count;
+    }
+}
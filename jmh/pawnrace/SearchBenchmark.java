@@ -0,0 +1,61 @@
+package pawnrace;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Fixed-depth iterative deepening over the position suite with an empty table each time.
+// The score is suites per second and the nodes counter comes out as nodes per second.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SearchBenchmark {
+
+    @Param({"6", "8"})
+    public int depth;
+
+    private Position[] positions;
+    private Search[] searches;
+    private TranspositionTable table;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        positions = BenchmarkPositions.suite();
+        table = new HeapTranspositionTable(Game.DEFAULT_HASH_SIZE);
+        searches = new Search[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            searches[i] = new Search(new Board(positions[i].board), table, Integer.MAX_VALUE);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public int search(Counters counters) {
+        int sum = 0;
+        for (int i = 0; i < positions.length; i++) {
+            sum += searches[i].think(1, depth, positions[i].color, positions[i].lastMove,
+                    System.currentTimeMillis());
+            counters.nodes += searches[i].getNodes();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,61 @@
+package pawnrace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Random keys so that most probes miss the caches, like they do in a real search
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TranspositionTableBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({"heap", "offheap"})
+    public String backend;
+
+    @Param({"64"})
+    public int sizeMB;
+
+    private TranspositionTable table;
+    private long[] keys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        table = backend.equals("heap")
+                ? new HeapTranspositionTable(sizeMB) : new OffHeapTranspositionTable(sizeMB);
+        SplittableRandom random = new SplittableRandom(2018);
+        keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextLong();
+            if (i % 2 == 0) {
+                table.store(keys[i], keys[i] >>> 8, keys[i] << 8, 10, TranspositionTable.EXACT,
+                        0, Move.pack(8, 16, false, false));
+            }
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public long probe() {
+        long key = keys[next++ & (KEYS - 1)];
+        return table.probe(key, key >>> 8, key << 8);
+    }
+
+    @Benchmark
+    public void store() {
+        long key = keys[next++ & (KEYS - 1)];
+        table.store(key, key >>> 8, key << 8, next & 31, TranspositionTable.LOWERBOUND,
+                next & 1023, Move.pack(8, 16, false, false));
+    }
+}
@@ -1,12 +0,0 @@
-// If only you could pattern match in Java... :(
-class MoveEval {
-    Move move;
-    int eval;
-    boolean winningMove;
-
-    MoveEval(Move move, int eval, boolean winningMove) {
-        this.move = move;
-        this.eval = eval;
-        this.winningMove = winningMove;
-    }
-}
\ No newline at end of file
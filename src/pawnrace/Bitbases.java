@@ -0,0 +1,262 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Win/draw/loss for the side to move of every position with up to a few pawns a side.
+// Pawns only move forwards and captures only remove pawns, so the game graph has no cycles
+// and the positions are solved backwards from the end of the game: every move leads to a
+// position with more advanced pawns or fewer of them, which is solved first.
+// One file per material signature, 2 bits an entry, memory-mapped read-only.
+// Index: ((white pawns * C(48, b) + black pawns) * 2 + side to move) * 9 + en passant column,
+// the pawn sets are numbered with the combinatorial number system over ranks 2 to 7.
+class Bitbases {
+
+    static final int UNKNOWN = 0;
+    static final int LOSS = 1;
+    static final int DRAW = 2;
+    static final int WIN = 3;
+
+    static final String DEFAULT_DIRECTORY = "bitbases";
+
+    private static final long MAGIC = 0x5041574e42420001L; // "PAWNBB" v1
+    private static final int HEADER_BYTES = 32;
+    private static final int SQUARES = 48;
+    private static final int MAX_PAWNS = 7;
+    private static final int EN_PASSANT_STATES = 9;
+    private static final int MAX_DEPTH = 96;
+
+    private static final long[][] binomial = new long[SQUARES + 1][MAX_PAWNS + 1];
+
+    static {
+        for (int n = 0; n <= SQUARES; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_PAWNS); k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+    }
+
+    // Loaded tables by [white pawns][black pawns]
+    private static MappedByteBuffer[][] tables = new MappedByteBuffer[MAX_PAWNS + 1][MAX_PAWNS + 1];
+    private static int maxWhite;
+    private static int maxBlack;
+
+    static boolean covers(int whitePieces, int blackPieces) {
+        return whitePieces <= maxWhite && blackPieces <= maxBlack
+                && tables[whitePieces][blackPieces] != null;
+    }
+
+    // No pawn may be on the last rank, that is checked by the search before probing
+    static int probe(long w, long b, int col, int enPassantColumn) {
+        MappedByteBuffer table = tables[Long.bitCount(w)][Long.bitCount(b)];
+        long index = index(w, b, col, enPassantColumn);
+        int packed = table.get(HEADER_BYTES + (int) (index >>> 2));
+        return (packed >>> ((int) (index & 3) * 2)) & 3;
+    }
+
+    static int maxWhite() {
+        return maxWhite;
+    }
+
+    static int maxBlack() {
+        return maxBlack;
+    }
+
+    // Maps every bitbase file in the directory, returns how many there were
+    static int load(Path directory) throws IOException {
+        int count = 0;
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "pawns-*.bb")) {
+            for (Path file : files) {
+                try (FileChannel channel = FileChannel.open(file)) {
+                    MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    table.order(ByteOrder.LITTLE_ENDIAN);
+                    if (channel.size() < HEADER_BYTES || table.getLong(0) != MAGIC) {
+                        System.out.println("Ignoring " + file + ", not a bitbase");
+                        continue;
+                    }
+                    int white = table.getInt(8);
+                    int black = table.getInt(12);
+                    // A corrupt header mustn't index the tables, a truncated file mustn't be probed
+                    if (white < 1 || white > MAX_PAWNS || black < 1 || black > MAX_PAWNS
+                            || channel.size() != HEADER_BYTES + (entries(white, black) + 3) / 4) {
+                        System.out.println("Ignoring " + file + ", not a bitbase");
+                        continue;
+                    }
+                    tables[white][black] = table;
+                    maxWhite = Math.max(maxWhite, white);
+                    maxBlack = Math.max(maxBlack, black);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static long entries(int white, int black) {
+        return binomial[SQUARES][white] * binomial[SQUARES][black] * 2 * EN_PASSANT_STATES;
+    }
+
+    private static long index(long w, long b, int col, int enPassantColumn) {
+        long index = setIndex(w) * binomial[SQUARES][Long.bitCount(b)] + setIndex(b);
+        return (index * 2 + (col == Color.WHITE ? 0 : 1)) * EN_PASSANT_STATES + enPassantColumn + 1;
+    }
+
+    // Combinatorial number system: the k-th lowest pawn adds C(square, k)
+    private static long setIndex(long pawns) {
+        long index = 0;
+        for (int k = 1; pawns != 0; k++, pawns &= pawns - 1) {
+            index += binomial[Long.numberOfTrailingZeros(pawns) - 8][k];
+        }
+        return index;
+    }
+
+    // Generator
+
+    private byte[][][] results;
+    private int[][] moveBuffers;
+    private Bitboard bb;
+
+    private Bitbases(int white, int black) {
+        results = new byte[white + 1][black + 1][];
+        for (int i = 1; i <= white; i++) {
+            for (int j = 1; j <= black; j++) {
+                long entries = entries(i, j);
+                if (entries > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException(i + "v" + j + " has too many positions");
+                }
+                results[i][j] = new byte[(int) entries];
+            }
+        }
+        moveBuffers = new int[MAX_DEPTH][Game.MAX_MOVES];
+        bb = new Bitboard();
+    }
+
+    // Solves every signature up to white v black pawns and writes them to the directory
+    static void generate(Path directory, int white, int black) throws IOException {
+        Files.createDirectories(directory);
+        Bitbases generator = new Bitbases(white, black);
+        for (int i = 1; i <= white; i++) {
+            for (int j = 1; j <= black; j++) {
+                long start = System.currentTimeMillis();
+                long[] counts = generator.solveAll(i, j);
+                Path file = directory.resolve("pawns-" + i + "v" + j + ".bb");
+                generator.write(file, i, j);
+                System.out.println(i + "v" + j + ": " + counts[WIN] + " won, " + counts[DRAW] + " drawn, "
+                        + counts[LOSS] + " lost, " + (System.currentTimeMillis() - start) + " ms");
+            }
+        }
+    }
+
+    private long[] solveAll(int white, int black) {
+        long[] whiteSets = sets(white);
+        long[] blackSets = sets(black);
+        long[] counts = new long[4];
+        int[] squares = new int[64];
+        for (long w : whiteSets) {
+            for (long b : blackSets) {
+                if ((w & b) != 0) {
+                    continue;
+                }
+                for (int col = Color.BLACK; col <= Color.WHITE; col += 2) {
+                    for (int enPassantColumn = -1; enPassantColumn < 8; enPassantColumn++) {
+                        if (enPassantColumn >= 0 && !canHaveDoublePushed(w, b, -col, enPassantColumn)) {
+                            continue;
+                        }
+                        for (int i = 0; i < 64; i++) {
+                            squares[i] = ((w >>> i) & 1) != 0 ? Color.WHITE
+                                    : ((b >>> i) & 1) != 0 ? Color.BLACK : Color.NONE;
+                        }
+                        counts[solve(new Board(squares, col == Color.BLACK), col, enPassantColumn, 0)]++;
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    private int solve(Board board, int col, int enPassantColumn, int depth) {
+        long w = board.getWhiteBitboard();
+        long b = board.getBlackBitboard();
+        byte[] table = results[Long.bitCount(w)][Long.bitCount(b)];
+        int index = (int) index(w, b, col, enPassantColumn);
+        if (table[index] != UNKNOWN) {
+            return table[index];
+        }
+
+        int[] moves = moveBuffers[depth];
+        int moveCount = Game.getAllValidMoves(bb.set(w, b), col, enPassantColumn, moves);
+        // Stalemate
+        int result = (moveCount == 0) ? DRAW : LOSS;
+        for (int i = 0; i < moveCount && result != WIN; i++) {
+            int move = moves[i];
+            board.applyMove(move);
+            int to = Move.to(move);
+            int value;
+            if (to >= 56 || to < 8 || board.getWhitePieces() == 0 || board.getBlackPieces() == 0) {
+                // Promoted or took the last pawn
+                value = WIN;
+            } else {
+                value = 4 - solve(board, -col, board.getEnPassantColumn(move), depth + 1);
+            }
+            board.unapplyMove(move);
+            result = Math.max(result, value);
+        }
+        table[index] = (byte) result;
+        return result;
+    }
+
+    // The pawn of the side that just moved is on its fourth rank with the two squares behind it empty
+    private static boolean canHaveDoublePushed(long w, long b, int mover, int enPassantColumn) {
+        int square = (mover == Color.WHITE) ? 31 - enPassantColumn : 39 - enPassantColumn;
+        long behind = (mover == Color.WHITE)
+                ? (1L << (square - 8)) | (1L << (square - 16))
+                : (1L << (square + 8)) | (1L << (square + 16));
+        long pawns = (mover == Color.WHITE) ? w : b;
+        return ((pawns >>> square) & 1) != 0 && ((w | b) & behind) == 0;
+    }
+
+    // Every set of k squares on ranks 2 to 7, in index order
+    private static long[] sets(int k) {
+        long[] sets = new long[(int) binomial[SQUARES][k]];
+        for (int i = 0; i < sets.length; i++) {
+            // Unrank: the largest square with C(square, j) <= what's left, from the top pawn down
+            long remainder = i;
+            long set = 0;
+            int square = SQUARES;
+            for (int j = k; j >= 1; j--) {
+                do {
+                    square--;
+                } while (binomial[square][j] > remainder);
+                remainder -= binomial[square][j];
+                set |= 1L << (square + 8);
+            }
+            sets[i] = set;
+        }
+        return sets;
+    }
+
+    private void write(Path file, int white, int black) throws IOException {
+        byte[] table = results[white][black];
+        byte[] packed = new byte[(table.length + 3) / 4];
+        for (int i = 0; i < table.length; i++) {
+            packed[i >>> 2] |= (byte) (table[i] << ((i & 3) * 2));
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(white).putInt(black).putLong(table.length);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            out.write(packed);
+        }
+    }
+}
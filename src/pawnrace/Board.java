@@ -0,0 +1,250 @@
+package pawnrace;
+
+class Board {
+    private int[] board;
+    private int whitePieces;
+    private int blackPieces;
+    char wG;
+    char bG;
+    private long hash;
+    private long w;
+    private long b;
+    // Material and piece-square evaluation from white's point of view
+    private int eval;
+
+    Board(char whiteGap, char blackGap) {
+        wG = whiteGap;
+        bG = blackGap;
+        board = new int[64];
+
+        for (int i = 0; i < 64; i++) {
+            if (i / 8 == 1) {
+                board[i] = Color.WHITE;
+            } else if (i / 8 == 6) {
+                board[i] = Color.BLACK;
+            }
+        }
+        board[15 - (whiteGap - 'a')] = Color.NONE;
+        board[55 - (blackGap - 'a')] = Color.NONE;
+
+        // Turing Test (Black always wins if white plays c2-c3)
+//        int[] n = {
+//                0, 0, 0, 0, 0, 0, 0, 0,
+//                0, 0, 0, 0, 0, 1, 0, 0,
+//                0, 0, 0, 0, 0, 0, 1, 1,
+//                0, 0, 0, 0, 0, 0, 0, 0,
+//                0, 0, 0, 0, 0, -1, -1, -1,
+//                0, 0, 0, 0, 0, 0, 0, 0,
+//                0, 0, 0, 0, 0, 0, 0, 0,
+//                0, 0, 0, 0, 0, 0, 0, 0
+//        };
+//        board = n.clone();
+
+        whitePieces = 7;
+        blackPieces = 7;
+
+        hash = Zobrist.getZobristHash(board, false);
+        for (int i = 0; i < 64; i++) {
+            if (board[i] == Color.WHITE) {
+                w |= 1L << i;
+            } else if (board[i] == Color.BLACK) {
+                b |= 1L << i;
+            }
+        }
+        eval = Evaluation.accumulate(w, b);
+    }
+
+    // Arbitrary position, squares hold Color.WHITE / Color.BLACK / Color.NONE
+    Board(int[] squares, boolean blackToPlay) {
+        wG = ' ';
+        bG = ' ';
+        board = squares.clone();
+        for (int i = 0; i < 64; i++) {
+            if (board[i] == Color.WHITE) {
+                w |= 1L << i;
+                whitePieces++;
+            } else if (board[i] == Color.BLACK) {
+                b |= 1L << i;
+                blackPieces++;
+            }
+        }
+        hash = Zobrist.getZobristHash(board, blackToPlay);
+        eval = Evaluation.accumulate(w, b);
+    }
+
+    Board(Board other) {
+        wG = other.wG;
+        bG = other.bG;
+        board = other.board.clone();
+        whitePieces = other.whitePieces;
+        blackPieces = other.blackPieces;
+        hash = other.hash;
+        w = other.w;
+        b = other.b;
+        eval = other.eval;
+    }
+
+    int get(int i) {
+        return board[i];
+    }
+
+    int getWhitePieces() {
+        return whitePieces;
+    }
+
+    int getBlackPieces() {
+        return blackPieces;
+    }
+
+    long getHash() {
+        return hash;
+    }
+
+    long getWhiteBitboard() {
+        return w;
+    }
+
+    long getBlackBitboard() {
+        return b;
+    }
+
+    int getEval() {
+        return eval;
+    }
+
+    int getEnPassantColumn(Move lastMove) {
+        if (lastMove == null || !lastMove.isDoublePush()) {
+            return -1;
+        }
+        return 7 - (lastMove.getTo() % 8);
+    }
+
+    int getEnPassantColumn(int lastMove) {
+        if (lastMove == Move.NONE || !Move.isDoublePush(lastMove)) {
+            return -1;
+        }
+        return 7 - (Move.to(lastMove) % 8);
+    }
+
+    void applyMove(Move move) {
+        applyMove(move.pack());
+    }
+
+    void unapplyMove(Move move) {
+        unapplyMove(move.pack());
+    }
+
+    void applyMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int occupier = board[from];
+        int col = (occupier + 1) / 2; // (white = 1 = 1, black = -1 = 0)
+
+        board[to] = occupier;
+        hash ^= Zobrist.zArray[col][to];
+
+        board[from] = Color.NONE;
+        hash ^= Zobrist.zArray[col][from];
+
+        toggle(occupier, (1L << from) | (1L << to));
+        eval += Evaluation.pieceSquare[col][to] - Evaluation.pieceSquare[col][from];
+
+        if (Move.isEnPassantCapture(move)) {
+            int ep = to - occupier * 8;
+            board[ep] = Color.NONE;
+            hash ^= Zobrist.zArray[1 - col][ep];
+            toggle(-occupier, 1L << ep);
+            eval -= Evaluation.pieceSquare[1 - col][ep];
+            whitePieces -= 1 - col;
+            blackPieces -= col;
+        } else if (Move.isCapture(move)) {
+            hash ^= Zobrist.zArray[1 - col][to];
+            toggle(-occupier, 1L << to);
+            eval -= Evaluation.pieceSquare[1 - col][to];
+            whitePieces -= 1 - col;
+            blackPieces -= col;
+        }
+
+        hash ^= Zobrist.zBlackMove;
+    }
+
+    void unapplyMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int occupier = board[to];
+        int other = -occupier;
+        int col = (occupier + 1) / 2;
+
+        board[to] = Color.NONE;
+        hash ^= Zobrist.zArray[col][to];
+
+        board[from] = occupier;
+        hash ^= Zobrist.zArray[col][from];
+
+        toggle(occupier, (1L << from) | (1L << to));
+        eval -= Evaluation.pieceSquare[col][to] - Evaluation.pieceSquare[col][from];
+
+        if (Move.isEnPassantCapture(move)) {
+            int ep = to - occupier * 8;
+            board[ep] = other;
+            hash ^= Zobrist.zArray[1 - col][ep];
+            toggle(other, 1L << ep);
+            eval += Evaluation.pieceSquare[1 - col][ep];
+            whitePieces += 1 - col;
+            blackPieces += col;
+        } else if (Move.isCapture(move)) {
+            board[to] = other;
+            hash ^= Zobrist.zArray[1 - col][to];
+            toggle(other, 1L << to);
+            eval += Evaluation.pieceSquare[1 - col][to];
+            whitePieces += 1 - col;
+            blackPieces += col;
+        }
+
+        hash ^= Zobrist.zBlackMove;
+    }
+
+    private void toggle(int color, long squares) {
+        if (color == Color.WHITE) {
+            w ^= squares;
+        } else {
+            b ^= squares;
+        }
+    }
+
+    void display() {
+        System.out.println(this);
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            if (i % 8 == 0) {
+                out.append("  ---------------------------------\n");
+                out.append((char) ('1' + (7 - (i / 8))));
+                out.append(" ");
+            }
+            out.append("| ");
+            if (board[63 - i] == Color.WHITE) {
+                out.append("W");
+            } else if (board[63 - i] == Color.BLACK) {
+                out.append("B");
+            } else {
+                out.append(" ");
+            }
+            out.append(" ");
+            if (i % 8 == 7) {
+                out.append("|\n");
+            }
+        }
+        out.append("  ---------------------------------\n");
+        out.append("  ");
+        for (int i = 0; i < 8; i++) {
+            out.append("  ");
+            out.append((char) ('a' + i));
+            out.append(" ");
+        }
+        out.append(" \n\n");
+        return out.toString();
+    }
+}
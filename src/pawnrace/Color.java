@@ -1,6 +1,8 @@
-class Color {
-    static final int WHITE = 1;
-    static final int BLACK = -1;
-    static final int NONE = 0;
-    static final int DRAWFLAG = 2;
-}
+package pawnrace;
+
+class Color {
+    static final int WHITE = 1;
+    static final int BLACK = -1;
+    static final int NONE = 0;
+    static final int DRAWFLAG = 2;
+}
@@ -0,0 +1,295 @@
+package pawnrace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Line-based protocol on stdin/stdout for running without a display, after UCI:
+//   position gaps <white><black> [moves <move>...]
+//   position fen <position> [moves <move>...]      (the format Position.parse reads)
+//   go [movetime <ms>] [depth <plies>] [nodes <n>]
+//   stop, isready, newgame, quit
+// The search answers with "info depth .. score .. nodes .. nps .. time .. pv .." after every
+// completed iteration and "bestmove <move>" at the end. The bestmove is the last info's first
+// PV move, unless a later root move was searched to the end with a better score before the
+// search stopped. Without limits the bestmove waits for stop, like UCI's go infinite, even if
+// the search finished before. Moves are written like Move.toString without the en passant
+// suffix and read as any text with the two squares in it, e.g. "a2a4".
+// Run as its own main class (or PawnRace --headless), which touches no AWT or Swing class.
+class EngineProtocol {
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final TranspositionTable transpositionTable;
+    private final OpeningBook openingBook;
+    private final ExecutorService searchPool;
+
+    private Position position;
+    private Search search;
+    private Future<?> result;
+    private CountDownLatch stopped;
+    private boolean infinite;
+
+    EngineProtocol(BufferedReader in, PrintStream out, TranspositionTable transpositionTable,
+                   OpeningBook openingBook) {
+        this.in = in;
+        this.out = out;
+        this.transpositionTable = transpositionTable;
+        this.openingBook = openingBook;
+        searchPool = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        position = Position.start('a', 'a');
+    }
+
+    // Takes PawnRace's --bitbases, --book, --eval-cache, --hash, --tt and --tt-file
+    public static void main(String[] args) {
+        // Before any AWT class loads, it's read once
+        System.setProperty("java.awt.headless", "true");
+        Zobrist.GenerateRandomNumbers();
+        Bitboard.initialize();
+
+        Options.loadBitbases(Options.get(args, "bitbases", Bitbases.DEFAULT_DIRECTORY), "info string ");
+        Evaluation.setCacheSize(Integer.parseInt(Options.get(args, "eval-cache",
+                Integer.toString(EvaluationCache.DEFAULT_SIZE))));
+        TranspositionTable transpositionTable = Options.getTranspositionTable(args);
+        String book = Options.get(args, "book", OpeningBook.DEFAULT_FILE);
+        OpeningBook openingBook = null;
+        if (Files.exists(Paths.get(book))) {
+            try {
+                openingBook = new OpeningBook(Paths.get(book));
+            } catch (IOException e) {
+                System.out.println("info string Couldn't load the book: " + e.getMessage());
+            }
+        }
+        try {
+            new EngineProtocol(new BufferedReader(new InputStreamReader(System.in)), System.out,
+                    transpositionTable, openingBook).run();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            transpositionTable.close();
+        }
+    }
+
+    // Reads commands until quit or the end of the input
+    void run() throws IOException {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                switch (tokens[0]) {
+                    case "position":
+                        stopSearch();
+                        setPosition(tokens);
+                        break;
+                    case "go":
+                        stopSearch();
+                        go(tokens);
+                        break;
+                    case "stop":
+                        stopSearch();
+                        break;
+                    case "isready":
+                        out.println("readyok");
+                        break;
+                    case "newgame":
+                        stopSearch();
+                        transpositionTable.clear();
+                        position = Position.start('a', 'a');
+                        break;
+                    case "quit":
+                        return;
+                    case "":
+                        break;
+                    default:
+                        out.println("info string unknown command: " + line.trim());
+                }
+            }
+            // At the end of piped input a search with a limit still runs to it, quit doesn't wait
+            finishSearch();
+        } finally {
+            stopSearch();
+            searchPool.shutdownNow();
+        }
+    }
+
+    private void setPosition(String[] tokens) {
+        int moves = tokens.length;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].equals("moves")) {
+                moves = i;
+                break;
+            }
+        }
+        Position position;
+        try {
+            if (tokens.length > 2 && tokens[1].equals("gaps") && tokens[2].matches("[a-h]{2}")) {
+                position = Position.start(tokens[2].charAt(0), tokens[2].charAt(1));
+            } else if (tokens.length > 2 && tokens[1].equals("fen")) {
+                position = Position.parse(String.join(" ", Arrays.copyOfRange(tokens, 2, moves)));
+            } else {
+                out.println("info string expected position gaps <white><black> or position fen <position>");
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            out.println("info string " + e.getMessage());
+            return;
+        }
+        for (int i = moves + 1; i < tokens.length; i++) {
+            Bitboard bb = new Bitboard(position.board);
+            int move = parseMove(tokens[i], bb, position.color, position.board.getEnPassantColumn(position.lastMove));
+            if (move == Move.NONE) {
+                out.println("info string illegal move " + tokens[i]);
+                break;
+            }
+            position.board.applyMove(move);
+            position.color = -position.color;
+            position.lastMove = move;
+        }
+        this.position = position;
+    }
+
+    private void go(String[] tokens) {
+        long start = System.currentTimeMillis();
+        int moveTime = Integer.MAX_VALUE;
+        int depth = 100;
+        long nodes = Long.MAX_VALUE;
+        try {
+            for (int i = 1; i + 1 < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "movetime":
+                        moveTime = Integer.parseInt(tokens[++i]);
+                        break;
+                    case "depth":
+                        depth = Integer.parseInt(tokens[++i]);
+                        break;
+                    case "nodes":
+                        nodes = Long.parseLong(tokens[++i]);
+                        break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            out.println("info string " + e.getMessage());
+            return;
+        }
+
+        Board board = new Board(position.board);
+        int col = position.color;
+        int lastMove = position.lastMove;
+        int enPassantColumn = board.getEnPassantColumn(lastMove);
+        Bitboard bb = new Bitboard(board);
+        if (bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0 || board.getWhitePieces() == 0
+                || board.getBlackPieces() == 0 || !Game.hasValidMoves(bb, col, enPassantColumn)) {
+            out.println("bestmove none");
+            return;
+        }
+        // Only timed searches play from the book, the others are wanted as they are
+        if (openingBook != null && moveTime != Integer.MAX_VALUE && depth == 100 && nodes == Long.MAX_VALUE) {
+            int move = openingBook.probe(board, lastMove);
+            if (move != Move.NONE && Game.isValidMove(bb, col, enPassantColumn, move)) {
+                out.println("info string book");
+                out.println("bestmove " + name(move));
+                return;
+            }
+        }
+
+        // A stopped search stays stopped, so every go gets its own
+        // movetime is the time to use, not a budget to save on
+        Search search = new Search(board, transpositionTable, moveTime);
+        search.setFixedTime(true);
+        search.setNodeLimit(nodes);
+        search.setListener(info -> out.println(info(info)));
+        int endDepth = depth;
+        boolean infinite = moveTime == Integer.MAX_VALUE && depth == 100 && nodes == Long.MAX_VALUE;
+        CountDownLatch stopped = new CountDownLatch(1);
+        this.search = search;
+        this.stopped = stopped;
+        this.infinite = infinite;
+        result = searchPool.submit(() -> {
+            int move = search.think(1, endDepth, col, lastMove, start);
+            if (move == Move.NONE) {
+                int[] moves = new int[Game.MAX_MOVES];
+                Game.getAllValidMoves(bb, col, enPassantColumn, moves);
+                move = moves[0];
+            }
+            if (infinite) {
+                try {
+                    stopped.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            out.println("bestmove " + name(move));
+        });
+    }
+
+    // Waits for the bestmove so that it comes before the answer to the next command
+    private void stopSearch() {
+        if (result == null) {
+            return;
+        }
+        search.stop();
+        stopped.countDown();
+        waitForSearch();
+    }
+
+    // Lets a search with a limit reach it, an unlimited one is stopped
+    private void finishSearch() {
+        if (result == null || infinite) {
+            return;
+        }
+        waitForSearch();
+    }
+
+    private void waitForSearch() {
+        try {
+            result.get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        search = null;
+        result = null;
+        stopped = null;
+    }
+
+    private static String info(SearchInfo info) {
+        StringBuilder sb = new StringBuilder("info");
+        sb.append(" depth ").append(info.getDepth()).append(" score ").append(info.getScore())
+                .append(" nodes ").append(info.getNodes())
+                .append(" nps ").append(info.getNodes() * 1000 / Math.max(1, info.getTime()))
+                .append(" time ").append(info.getTime()).append(" pv");
+        for (int move : info.getPV()) {
+            sb.append(' ').append(name(move));
+        }
+        return sb.toString();
+    }
+
+    private static String name(int move) {
+        String name = Move.toString(move);
+        return Move.isEnPassantCapture(move) ? name.substring(0, 5) : name;
+    }
+
+    private static int parseMove(String text, Bitboard bb, int col, int enPassantColumn) {
+        String squares = text.replaceAll("[^a-h1-8]", "");
+        int[] moves = new int[Game.MAX_MOVES];
+        int moveCount = Game.getAllValidMoves(bb, col, enPassantColumn, moves);
+        for (int i = 0; i < moveCount; i++) {
+            if (name(moves[i]).replaceAll("[^a-h1-8]", "").equals(squares)) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+}
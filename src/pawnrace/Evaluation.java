@@ -0,0 +1,180 @@
+package pawnrace;
+
+class Evaluation {
+
+    private static int[] linearMap = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            32, 30, 20, 32, 32, 20, 30, 32,
+            31, 30, 10, 30, 30, 10, 30, 31,
+            15, 15, 0, 15, 15, 0, 15, 15,
+            -5, 5, 10, 0, 0, 10, 5, -5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int PAWN = 100;
+    // By rank from the side's point of view, on top of linearMap
+    private static final int[] advancedPawnBonus = {0, 0, 0, 0, 5, 15, 30, 0};
+
+    // Rank masks by the bits of the rank number, so that the sum of ranks is three popcounts
+    private static final long rankBit0 = 0xff00ff00ff00ff00L;
+    private static final long rankBit1 = 0xffff0000ffff0000L;
+    private static final long rankBit2 = 0xffffffff00000000L;
+
+    // Pawn structure weights, from the side's point of view
+    private static final int[] passedPawnBonus = {0, 0, 10, 20, 35, 60, 100, 0};
+    private static final int ISOLATED_PAWN = -10;
+    private static final int DEFENDED_PAWN = 5;
+    private static final int HANGING_PAWN = -15;
+    private static final int CANDIDATE_PAWN = 8;
+
+    // Sum of linearMap over the pawns of one rank, indexed by the rank's byte
+    private static final int[][] linearMapByRank = new int[8][256];
+
+    // Material, linearMap and advanced pawn bonus for a pawn of each colour on each square,
+    // indexed like Zobrist.zArray (black = 0, white = 1) and signed from white's point of view
+    static final int[][] pieceSquare = new int[2][64];
+
+    // Shared by every search, the pawn terms only depend on (w, b)
+    private static EvaluationCache cache = new EvaluationCache(EvaluationCache.DEFAULT_SIZE);
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            int value = PAWN + linearMap[63 - i] + advancedPawnBonus[i / 8];
+            pieceSquare[1][i] = value;
+            pieceSquare[0][i ^ 56] = -value;
+        }
+        for (int rank = 0; rank < 8; rank++) {
+            for (int pawns = 0; pawns < 256; pawns++) {
+                for (int bit = 0; bit < 8; bit++) {
+                    if ((pawns & (1 << bit)) != 0) {
+                        linearMapByRank[rank][pawns] += linearMap[63 - (rank * 8 + bit)];
+                    }
+                }
+            }
+        }
+    }
+
+    static void setCacheSize(int sizeMB) {
+        cache = new EvaluationCache(sizeMB);
+    }
+
+    static EvaluationCache getCache() {
+        return cache;
+    }
+
+    // The accumulator Board keeps up to date in applyMove/unapplyMove and the pawn structure
+    static int staticEval(Board board) {
+        return board.getEval()
+                + EvaluationCache.structure(pawnTerms(board.getWhiteBitboard(), board.getBlackBitboard()));
+    }
+
+    // Everything that only depends on the pawns, from the cache if it's there
+    private static long pawnTerms(long w, long b) {
+        long data = cache.probe(w, b);
+        if (data != 0) {
+            return data;
+        }
+        long black = Bitboard.flip(b);
+        long flippedWhite = Bitboard.flip(w);
+        return cache.store(w, b,
+                evaluatePawnStructure(w, b) - evaluatePawnStructure(black, flippedWhite),
+                initialEval(w, b), initialEval(black, flippedWhite));
+    }
+
+    // What Board starts the accumulator from
+    static int accumulate(long w, long b) {
+        int eval = 0;
+        for (; w != 0; w &= w - 1) {
+            eval += pieceSquare[1][Long.numberOfTrailingZeros(w)];
+        }
+        for (; b != 0; b &= b - 1) {
+            eval += pieceSquare[0][Long.numberOfTrailingZeros(b)];
+        }
+        return eval;
+    }
+
+    // Slower but aware of pawn safety, only used to break ties between root moves
+    static int initialEval(Bitboard bb, int enPassantColumn) {
+        long data = pawnTerms(bb.w, bb.b);
+        if (enPassantColumn == -1) {
+            return EvaluationCache.whiteInitialEval(data) - EvaluationCache.blackInitialEval(data);
+        }
+        long black = Bitboard.flip(bb.b);
+        long flippedWhite = Bitboard.flip(bb.w);
+        // A side whose pawn can be taken en passant gets nothing
+        boolean whiteEnPassanted = (Bitboard.enPassantLeft(black, flippedWhite, enPassantColumn)
+                | Bitboard.enPassantRight(black, flippedWhite, enPassantColumn)) != 0;
+        boolean blackEnPassanted = (Bitboard.enPassantLeft(bb.w, bb.b, enPassantColumn)
+                | Bitboard.enPassantRight(bb.w, bb.b, enPassantColumn)) != 0;
+        return (whiteEnPassanted ? 0 : EvaluationCache.whiteInitialEval(data))
+                - (blackEnPassanted ? 0 : EvaluationCache.blackInitialEval(data));
+    }
+
+    // From the point of view of 'us' on colour-normalised bitboards. A pawn counts if it is
+    // defended at least as many times as it is attacked and has a neighbour beside or ahead of it
+    private static int initialEval(long us, long them) {
+        long defendedLeft = Bitboard.attacksLeft(us);
+        long defendedRight = Bitboard.attacksRight(us);
+        long defended = defendedLeft | defendedRight;
+        long defendedTwice = defendedLeft & defendedRight;
+        long attackedLeft = Bitboard.enemyAttacksLeft(them);
+        long attackedRight = Bitboard.enemyAttacksRight(them);
+        long unsafe = (attackedLeft & attackedRight & ~defendedTwice) | ((attackedLeft | attackedRight) & ~defended);
+        long neighbours = Bitboard.southFill(Bitboard.westOne(us) | Bitboard.eastOne(us));
+        long safe = us & ~unsafe & neighbours;
+        long open = ~Bitboard.southFill((us | them) >>> 8);
+
+        int eval = 200 * Long.bitCount(safe)
+                + Long.bitCount(safe & defended) + Long.bitCount(safe & defendedTwice)
+                + rankSum(safe & open);
+        for (int rank = 1; rank < 7; rank++) {
+            eval += linearMapByRank[rank][(int) (safe >>> (rank * 8)) & 0xff];
+        }
+        return eval;
+    }
+
+    // Pawn structure from the point of view of 'us' on colour-normalised bitboards,
+    // every term is worked out for all pawns at once
+    private static int evaluatePawnStructure(long us, long them) {
+        long defendedLeft = Bitboard.attacksLeft(us);
+        long defendedRight = Bitboard.attacksRight(us);
+        long defended = defendedLeft | defendedRight;
+        long defendedTwice = defendedLeft & defendedRight;
+        long attackedLeft = Bitboard.enemyAttacksLeft(them);
+        long attackedRight = Bitboard.enemyAttacksRight(them);
+        long attacked = attackedLeft | attackedRight;
+        long attackedTwice = attackedLeft & attackedRight;
+
+        // Squares their pawns can still stop us on: in front of them on their file and beside it
+        long theirFront = Bitboard.southFill(them >>> 8);
+        long passed = us & ~(theirFront | Bitboard.westOne(theirFront) | Bitboard.eastOne(theirFront));
+        long files = Bitboard.fileFill(us);
+        long isolated = us & ~(Bitboard.westOne(files) | Bitboard.eastOne(files));
+        // Pawns in a chain, counted once for each pawn defending them
+        int chains = Long.bitCount(us & defendedLeft) + Long.bitCount(us & defendedRight);
+        // Attacked more often than defended
+        long hanging = us & ((attackedTwice & ~defendedTwice) | (attacked & ~defended));
+        // Not passed yet, but nothing in front and the next square is safe to push to
+        long open = us & ~Bitboard.southFill((us | them) >>> 8);
+        long safeStop = ((attackedTwice & defendedTwice) | (attacked & ~attackedTwice & defended)
+                | ~attacked) >>> 8;
+        long candidates = open & ~passed & safeStop;
+
+        int eval = ISOLATED_PAWN * Long.bitCount(isolated)
+                + DEFENDED_PAWN * chains
+                + HANGING_PAWN * Long.bitCount(hanging)
+                + CANDIDATE_PAWN * Long.bitCount(candidates);
+        for (int rank = 2; rank < 7; rank++) {
+            eval += passedPawnBonus[rank] * Long.bitCount(passed & (0xffL << (rank * 8)));
+        }
+        return eval;
+    }
+
+    // Sum of the ranks (0 to 7) of the pawns
+    private static int rankSum(long pawns) {
+        return Long.bitCount(pawns & rankBit0) + 2 * Long.bitCount(pawns & rankBit1)
+                + 4 * Long.bitCount(pawns & rankBit2);
+    }
+}
@@ -0,0 +1,90 @@
+package pawnrace;
+
+// Direct-mapped cache of the pawn evaluation terms keyed by the (w, b) pair, which in a pawn race
+// is the whole position. Entries are (w ^ data, b ^ data, data) so that threads can share the cache
+// without locking, an entry torn by two writers simply fails verification.
+// data: structure (16 bits) | white initialEval (16 bits) | black initialEval (16 bits) | valid bit
+class EvaluationCache {
+
+    static final int DEFAULT_SIZE = 4;
+
+    private static final int ENTRY_LONGS = 3;
+    private static final long VALID = 1L << 63;
+    private static final int OFFSET = 1 << 15;
+
+    private final long[] table;
+    private final int mask;
+
+    // Tuning, approximate when threads share the cache
+    private long probes;
+    private long hits;
+
+    EvaluationCache(int sizeMB) {
+        long entries = Long.highestOneBit(Math.max(1L, ((long) sizeMB << 20) / (ENTRY_LONGS * 8)));
+        entries = Math.min(entries, 1L << 28);
+        table = new long[(int) entries * ENTRY_LONGS];
+        mask = (int) entries - 1;
+    }
+
+    // Returns the packed data of the entry or 0
+    long probe(long w, long b) {
+        probes++;
+        int i = index(w, b);
+        long data = table[i + 2];
+        if ((table[i] ^ data) == w && (table[i + 1] ^ data) == b && data != 0) {
+            hits++;
+            return data;
+        }
+        return 0;
+    }
+
+    long store(long w, long b, int structure, int whiteInitialEval, int blackInitialEval) {
+        long data = VALID
+                | ((long) (structure + OFFSET) & 0xffff)
+                | (((long) (whiteInitialEval + OFFSET) & 0xffff) << 16)
+                | (((long) (blackInitialEval + OFFSET) & 0xffff) << 32);
+        int i = index(w, b);
+        table[i] = w ^ data;
+        table[i + 1] = b ^ data;
+        table[i + 2] = data;
+        return data;
+    }
+
+    static int structure(long data) {
+        return (int) (data & 0xffff) - OFFSET;
+    }
+
+    static int whiteInitialEval(long data) {
+        return (int) ((data >>> 16) & 0xffff) - OFFSET;
+    }
+
+    static int blackInitialEval(long data) {
+        return (int) ((data >>> 32) & 0xffff) - OFFSET;
+    }
+
+    void resetCounters() {
+        probes = 0;
+        hits = 0;
+    }
+
+    long getProbes() {
+        return probes;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    double getHitRate() {
+        return (probes == 0) ? 0 : (double) hits / probes;
+    }
+
+    int getSizeMB() {
+        return (int) (((long) table.length * 8) >> 20);
+    }
+
+    private int index(long w, long b) {
+        long key = (w * 0x9e3779b97f4a7c15L) ^ (b * 0xc2b2ae3d27d4eb4fL);
+        return ((int) (key >>> 32) & mask) * ENTRY_LONGS;
+    }
+}
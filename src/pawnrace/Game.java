@@ -0,0 +1,595 @@
+package pawnrace;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+class Game {
+
+    static final int MAX_MOVES = 64;
+    static final int DEFAULT_HASH_SIZE = 64; // MB
+
+    private Board board;
+    private ArrayList<Move> playedMoves;
+    private int currentPlayer;
+    private int index;
+    private int threshold;
+    private boolean stalemate;
+
+    private TranspositionTable transpositionTable;
+    private Search search;
+    private int threads;
+    private ExecutorService helperPool;
+    private ParallelSearch parallelSearch;
+    private OpeningBook openingBook;
+
+    // Pondering: after moving, search the reply the engine expects on the opponent's time
+    private boolean ponder;
+    private ExecutorService ponderPool;
+    private Search ponderSearch;
+    private Future<Integer> ponderResult;
+    private int ponderMove;
+
+    // Searches started from the GUI run on their own thread so that it keeps painting
+    private ExecutorService searchPool;
+    private Consumer<SearchInfo> progress;
+
+    // Where the moves, results and search statistics are printed
+    private PrintStream out;
+
+    Game(Board board, int threshold) {
+        this(board, threshold, DEFAULT_HASH_SIZE);
+    }
+
+    Game(Board board, int threshold, int hashSize) {
+        this(board, threshold, new HeapTranspositionTable(hashSize));
+    }
+
+    Game(Board board, int threshold, TranspositionTable transpositionTable) {
+        this.board = board;
+        this.threshold = threshold;
+        playedMoves = new ArrayList<>();
+        currentPlayer = Color.WHITE;
+        index = -1;
+        stalemate = false;
+        this.transpositionTable = transpositionTable;
+        search = new Search(board, transpositionTable, threshold);
+        threads = 1;
+        out = System.out;
+        initializeTranspositionTable();
+    }
+
+    void close() {
+        stopPondering();
+        if (searchPool != null) {
+            searchPool.shutdownNow();
+        }
+        if (ponderPool != null) {
+            ponderPool.shutdownNow();
+        }
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+        if (parallelSearch != null) {
+            parallelSearch.shutdown();
+        }
+        transpositionTable.close();
+    }
+
+    // Helper threads search the same root and share the transposition table
+    void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+            helperPool = null;
+        }
+        if (this.threads > 1) {
+            helperPool = Executors.newFixedThreadPool(this.threads - 1, r -> {
+                Thread thread = new Thread(r, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Splits the search with fork-join instead of running Lazy SMP helpers
+    void setForkJoin(boolean forkJoin) {
+        if (parallelSearch != null) {
+            parallelSearch.shutdown();
+            parallelSearch = null;
+        }
+        if (forkJoin) {
+            parallelSearch = new ParallelSearch(board, transpositionTable, threshold, threads);
+        }
+    }
+
+    void setPonder(boolean ponder) {
+        this.ponder = ponder;
+        if (ponder && ponderPool == null) {
+            ponderPool = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    // Stops every search after this many nodes as well as after the threshold
+    void setNodeLimit(long nodeLimit) {
+        search.setNodeLimit(nodeLimit);
+        if (parallelSearch != null) {
+            parallelSearch.getRoot().setNodeLimit(nodeLimit);
+        }
+    }
+
+    void setOutput(PrintStream out) {
+        this.out = out;
+    }
+
+    int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    Move getLastMove() {
+        return (index >= 0) ? playedMoves.get(index) : null;
+    }
+
+    private void applyMove(Move move) {
+        board.applyMove(move);
+        playedMoves.add(move);
+        currentPlayer = -currentPlayer;
+        index++;
+    }
+
+    private void unapplyMove(Move move) {
+        board.unapplyMove(move);
+        playedMoves.remove(index);
+        currentPlayer = -currentPlayer;
+        index--;
+    }
+
+    void makeMove(UI gameUI, boolean isComputerPlayer) {
+        Bitboard bb = new Bitboard(board);
+        Move move;
+        Move[] validMoves = getAllValidMoves(bb, currentPlayer,
+                board.getEnPassantColumn(getLastMove()));
+        if (validMoves.length == 0) {
+            out.println("Stalemate");
+            stalemate = true;
+            return;
+        }
+        if (isComputerPlayer) {
+            out.println("Thinking...");
+            move = AI(validMoves);
+        } else {
+            move = gameUI.getTextInput(validMoves);
+        }
+        out.println(move);
+        applyMove(move);
+        if (isComputerPlayer) {
+            startPondering();
+        }
+    }
+
+    void makeAIMove() {
+        Bitboard bb = new Bitboard(board);
+        Move[] validMoves = getAllValidMoves(bb, currentPlayer,
+                board.getEnPassantColumn(getLastMove()));
+        if (validMoves.length == 0) {
+            stalemate = true;
+            return;
+        }
+
+        out.println("Thinking...");
+        playAIMove(AI(validMoves));
+    }
+
+    // Searches on a background thread and completes with the move, or null on stalemate.
+    // The board isn't changed until the caller plays the move with playAIMove, progress
+    // is called from the searching thread after every completed depth
+    CompletableFuture<Move> searchAIMove(Consumer<SearchInfo> progress) {
+        Bitboard bb = new Bitboard(board);
+        Move[] validMoves = getAllValidMoves(bb, currentPlayer,
+                board.getEnPassantColumn(getLastMove()));
+        if (validMoves.length == 0) {
+            stalemate = true;
+            return CompletableFuture.completedFuture(null);
+        }
+        if (searchPool == null) {
+            searchPool = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        out.println("Thinking...");
+        return CompletableFuture.supplyAsync(() -> {
+            this.progress = progress;
+            try {
+                return AI(validMoves);
+            } finally {
+                this.progress = null;
+            }
+        }, searchPool);
+    }
+
+    void playAIMove(Move move) {
+        out.println(move);
+        applyMove(move);
+        startPondering();
+    }
+
+    void undo() {
+        stopPondering();
+        if (getLastMove() == null) {
+            return;
+        }
+        unapplyMove(getLastMove());
+        if (getLastMove() == null) {
+            return;
+        }
+        unapplyMove(getLastMove());
+    }
+
+    boolean makeGUIMove(String san) {
+        Bitboard bb = new Bitboard(board);
+        Move[] validMoves = getAllValidMoves(bb, currentPlayer,
+                board.getEnPassantColumn(getLastMove()));
+        if (validMoves.length == 0) {
+            stalemate = true;
+            return true;
+        }
+        for (Move move : validMoves) {
+            if (move.toString().equals(san)) {
+                out.println(move);
+                applyMove(move);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getWinner() {
+        if (stalemate) {
+            out.println("Stalemate");
+            return Color.DRAWFLAG;
+        }
+        for (int i = 0; i < 8; i++) {
+            if (board.get(56 + i) == Color.WHITE) {
+                out.println("White Wins");
+                return Color.WHITE;
+            } else if (board.get(i) == Color.BLACK) {
+                out.println("Black Wins");
+                return Color.BLACK;
+            }
+        }
+        return Color.NONE;
+    }
+
+    // 'AI' *cough* *cough*
+    private Move AI(Move[] validMoves) {
+        long startTime = System.currentTimeMillis();
+        Move lastMove = getLastMove();
+        int last = (lastMove != null) ? lastMove.pack() : Move.NONE;
+        if (ponderResult != null) {
+            ponderSearch.setListener(progress);
+            int ponderedMove = finishPondering(last, startTime);
+            for (Move move : validMoves) {
+                if (move.pack() == ponderedMove) {
+                    return move;
+                }
+            }
+        }
+        if (openingBook != null) {
+            int bookMove = openingBook.probe(board, last);
+            for (Move move : validMoves) {
+                if (move.pack() == bookMove) {
+                    out.println("Book move");
+                    return move;
+                }
+            }
+        }
+        transpositionTable.newSearch();
+        Evaluation.getCache().resetCounters();
+        // The game's board may be painted while the search runs, so it searches a copy
+        Board searchBoard = new Board(board);
+
+        if (parallelSearch != null) {
+            parallelSearch.getRoot().setBoard(searchBoard);
+            parallelSearch.getRoot().setListener(progress);
+            int move = parallelSearch.think(6, 100, currentPlayer, last, startTime);
+            out.println("Max depth = " + parallelSearch.getRoot().getMaxDepth());
+            out.println("Depth = " + parallelSearch.getRoot().getCompletedDepth()
+                    + ", Nodes = " + parallelSearch.getNodes()
+                    + ", Splits = " + parallelSearch.getSplits());
+            printIterationNodes(parallelSearch.getRoot());
+            printEvaluationCache();
+            return (move != Move.NONE) ? new Move(move) : validMoves[0];
+        }
+
+        ArrayList<Search> helpers = new ArrayList<>();
+        ArrayList<Future<Integer>> results = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Search helper = new Search(new Board(board), transpositionTable, threshold);
+            int startDepth = 6 + i % 3;
+            helpers.add(helper);
+            results.add(helperPool.submit(() -> helper.think(startDepth, currentPlayer, last, startTime)));
+        }
+
+        search.setBoard(searchBoard);
+        search.setListener(progress);
+        int move = search.think(6, currentPlayer, last, startTime);
+        int depth = search.getCompletedDepth();
+        long nodes = search.getNodes();
+
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < helpers.size(); i++) {
+            Search helper = helpers.get(i);
+            try {
+                results.get(i).get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                continue;
+            }
+            nodes += helper.getNodes();
+            // The move of the deepest completed iteration, not one from the iteration it was stopped in
+            if (!search.isWinningMove() && helper.getCompletedDepth() > depth
+                    && helper.getCompletedMove() != Move.NONE) {
+                move = helper.getCompletedMove();
+                depth = helper.getCompletedDepth();
+            }
+        }
+
+        out.println("Transpostion Table Hits = " + search.getHits());
+        out.println("Bitbase Hits = " + search.getBitbaseHits() + ", Race Hits = " + search.getRaceHits());
+        out.println("Max depth = " + search.getMaxDepth());
+        out.println("Depth = " + depth + ", Nodes = " + nodes + ", Time = " + search.getElapsed() + " ms");
+        out.println("Reductions = " + search.getReductions() + ", Re-searches = " + search.getResearches()
+                + ", Futility prunes = " + search.getFutilityPrunes());
+        printIterationNodes(search);
+        printEvaluationCache();
+        return (move != Move.NONE) ? new Move(move) : validMoves[0];
+    }
+
+    // Searches the position after the reply stored in the table for our last move
+    private void startPondering() {
+        if (!ponder) {
+            return;
+        }
+        Bitboard bb = new Bitboard(board);
+        if (bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0
+                || board.getWhitePieces() == 0 || board.getBlackPieces() == 0) {
+            return;
+        }
+        long entry = transpositionTable.probe(board.getHash(), bb.w, bb.b);
+        if (entry == TranspositionTable.MISS || !isValidMove(bb, currentPlayer,
+                board.getEnPassantColumn(getLastMove()), TranspositionTable.move(entry))) {
+            return;
+        }
+        ponderMove = TranspositionTable.move(entry);
+        Board ponderBoard = new Board(board);
+        ponderBoard.applyMove(ponderMove);
+        Search search = new Search(ponderBoard, transpositionTable, Integer.MAX_VALUE);
+        int col = -currentPlayer;
+        int reply = ponderMove;
+        long start = System.currentTimeMillis();
+        ponderSearch = search;
+        ponderResult = ponderPool.submit(() -> search.think(6, col, reply, start));
+    }
+
+    // On a ponder hit the search carries on as the real one with the usual threshold,
+    // otherwise it is stopped and only the table entries it left are kept
+    private int finishPondering(int lastMove, long startTime) {
+        Search search = ponderSearch;
+        Future<Integer> result = ponderResult;
+        ponderSearch = null;
+        ponderResult = null;
+        boolean hit = lastMove == ponderMove;
+        if (hit) {
+            search.setTimeLimit(startTime, threshold);
+        } else {
+            search.stop();
+        }
+        int move;
+        try {
+            move = result.get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            return Move.NONE;
+        }
+        if (!hit) {
+            return Move.NONE;
+        }
+        out.println("Ponder hit");
+        out.println("Depth = " + search.getCompletedDepth() + ", Nodes = " + search.getNodes());
+        printIterationNodes(search);
+        return move;
+    }
+
+    private void stopPondering() {
+        if (ponderResult != null) {
+            finishPondering(Move.NONE, System.currentTimeMillis());
+        }
+    }
+
+    private void printEvaluationCache() {
+        EvaluationCache cache = Evaluation.getCache();
+        out.printf("Eval cache hits = %d / %d (%.1f%%)%n",
+                cache.getHits(), cache.getProbes(), 100 * cache.getHitRate());
+    }
+
+    private void printIterationNodes(Search search) {
+        StringBuilder sb = new StringBuilder("Nodes to reach depth =");
+        // Solved positions run through to depth 100, only the deepest iterations are interesting
+        for (int depth = Math.max(6, search.getCompletedDepth() - 7); depth <= search.getCompletedDepth(); depth++) {
+            sb.append(' ').append(depth).append(": ").append(search.getIterationNodes(depth));
+        }
+        out.println(sb);
+    }
+
+    // Move Generation
+    static Move[] getAllValidMoves(Bitboard bb, int color, int enPassantColumn) {
+        int[] packed = new int[MAX_MOVES];
+        int count = getAllValidMoves(bb, color, enPassantColumn, packed);
+        Move[] m = new Move[count];
+        for (int i = 0; i < count; i++) {
+            m[i] = new Move(packed[i]);
+        }
+        return m;
+    }
+
+    // Writes packed moves into the buffer and returns how many there are.
+    // Black's moves are generated on the flipped board and flipped back (square ^ 56)
+    static int getAllValidMoves(Bitboard bb, int color, int enPassantColumn, int[] moves) {
+        return getPushes(bb, color, moves, getCaptures(bb, color, enPassantColumn, moves, 0));
+    }
+
+    // The search generates in stages, these append to the buffer from count and return the new count
+    static int getCaptures(Bitboard bb, int color, int enPassantColumn, int[] moves, int count) {
+        long us = (color == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (color == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        int flip = (color == Color.WHITE) ? 0 : 56;
+        int i;
+        if (enPassantColumn >= 0) {
+            long enPassantL = Bitboard.enPassantLeft(us, them, enPassantColumn);
+            long enPassantR = Bitboard.enPassantRight(us, them, enPassantColumn);
+            if (enPassantL != 0) {
+                i = Long.numberOfTrailingZeros(enPassantL);
+                moves[count++] = Move.pack((i - 9) ^ flip, i ^ flip, true, true);
+            }
+            if (enPassantR != 0) {
+                i = Long.numberOfTrailingZeros(enPassantR);
+                moves[count++] = Move.pack((i - 7) ^ flip, i ^ flip, true, true);
+            }
+        }
+        long captureL = Bitboard.captureLeft(us, them);
+        while (captureL != 0) {
+            i = Long.numberOfTrailingZeros(captureL);
+            captureL &= captureL - 1;
+            moves[count++] = Move.pack((i - 9) ^ flip, i ^ flip, true, false);
+        }
+        long captureR = Bitboard.captureRight(us, them);
+        while (captureR != 0) {
+            i = Long.numberOfTrailingZeros(captureR);
+            captureR &= captureR - 1;
+            moves[count++] = Move.pack((i - 7) ^ flip, i ^ flip, true, false);
+        }
+        return count;
+    }
+
+    static int getPushes(Bitboard bb, int color, int[] moves, int count) {
+        long us = (color == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (color == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        int flip = (color == Color.WHITE) ? 0 : 56;
+        int i;
+        long doublePush = Bitboard.doublePush(us, them);
+        while (doublePush != 0) {
+            i = Long.numberOfTrailingZeros(doublePush);
+            doublePush &= doublePush - 1;
+            moves[count++] = Move.pack((i - 16) ^ flip, i ^ flip, false, false);
+        }
+        long singlePush = Bitboard.singlePush(us, them);
+        while (singlePush != 0) {
+            i = Long.numberOfTrailingZeros(singlePush);
+            singlePush &= singlePush - 1;
+            moves[count++] = Move.pack((i - 8) ^ flip, i ^ flip, false, false);
+        }
+        return count;
+    }
+
+    // Same number of moves as getAllValidMoves without generating them
+    static int countValidMoves(Bitboard bb, int color, int enPassantColumn) {
+        long us = (color == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (color == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        int count = Long.bitCount(Bitboard.singlePush(us, them)) + Long.bitCount(Bitboard.doublePush(us, them))
+                + Long.bitCount(Bitboard.captureLeft(us, them)) + Long.bitCount(Bitboard.captureRight(us, them));
+        if (enPassantColumn >= 0) {
+            count += Long.bitCount(Bitboard.enPassantLeft(us, them, enPassantColumn))
+                    + Long.bitCount(Bitboard.enPassantRight(us, them, enPassantColumn));
+        }
+        return count;
+    }
+
+    // Not stalemated, a double push needs the single push square to be empty so it's left out
+    static boolean hasValidMoves(Bitboard bb, int color, int enPassantColumn) {
+        long us = (color == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (color == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        long targets = Bitboard.singlePush(us, them) | Bitboard.captureLeft(us, them)
+                | Bitboard.captureRight(us, them);
+        if (enPassantColumn >= 0) {
+            targets |= Bitboard.enPassantLeft(us, them, enPassantColumn)
+                    | Bitboard.enPassantRight(us, them, enPassantColumn);
+        }
+        return targets != 0;
+    }
+
+    // Whether getAllValidMoves would generate this packed move, without generating any,
+    // for hash moves that may come from another position
+    static boolean isValidMove(Bitboard bb, int color, int enPassantColumn, int move) {
+        boolean capture = Move.isCapture(move);
+        boolean enPassant = Move.isEnPassantCapture(move);
+        if (move != Move.pack(Move.from(move), Move.to(move), capture, enPassant) || (enPassant && !capture)) {
+            return false;
+        }
+        long us = (color == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (color == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        int flip = (color == Color.WHITE) ? 0 : 56;
+        int to = Move.to(move) ^ flip;
+        long targets;
+        switch (to - (Move.from(move) ^ flip)) {
+            case 8:
+                targets = capture ? 0 : Bitboard.singlePush(us, them);
+                break;
+            case 16:
+                targets = capture ? 0 : Bitboard.doublePush(us, them);
+                break;
+            case 9:
+                if (!enPassant) {
+                    targets = capture ? Bitboard.captureLeft(us, them) : 0;
+                } else {
+                    targets = (enPassantColumn >= 0) ? Bitboard.enPassantLeft(us, them, enPassantColumn) : 0;
+                }
+                break;
+            case 7:
+                if (!enPassant) {
+                    targets = capture ? Bitboard.captureRight(us, them) : 0;
+                } else {
+                    targets = (enPassantColumn >= 0) ? Bitboard.enPassantRight(us, them, enPassantColumn) : 0;
+                }
+                break;
+            default:
+                return false;
+        }
+        return ((targets >>> to) & 1) != 0;
+    }
+
+    private void initializeTranspositionTable() {
+//        Board fake = new Board('h', 'a');
+//        Move[] whiteMoves1 = getAllValidMoves(new Bitboard(fake), 1, -1);
+//        for (Move wm1 : whiteMoves1) {
+//            fake.applyMove(wm1);
+//            if (wm1.toString().equals("a2-a4")) {
+//
+//            } else {
+//
+//            }
+//            fake.unapplyMove(wm1);
+//        }
+    }
+
+    private void addEntry(Board brd, Move bestMove) {
+        transpositionTable.store(brd.getHash(), brd.getWhiteBitboard(), brd.getBlackBitboard(),
+                0xff, TranspositionTable.EXACT, Search.INFINITY, bestMove.pack());
+    }
+}
@@ -0,0 +1,93 @@
+package pawnrace;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Black chooses both gaps before the game. Searches the start of all 64 combinations in parallel,
+// each with its own board and table and the same time or node budget, and picks the
+// combination that is worst for white.
+class GapSolver {
+
+    // It runs before the first move, so by default a node budget keeps all 64 to a few seconds
+    // on one core and makes the choice the same on every machine
+    static final long DEFAULT_NODES = 200000; // per combination
+
+    // White's score with white to move, by [white gap][black gap]
+    private int[][] scores;
+    private char whiteGap;
+    private char blackGap;
+
+    private GapSolver(int[][] scores) {
+        this.scores = scores;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                if (scores[i][j] < best) {
+                    best = scores[i][j];
+                    whiteGap = (char) ('a' + i);
+                    blackGap = (char) ('a' + j);
+                }
+            }
+        }
+    }
+
+    static GapSolver solve(int threads, int time, long nodes) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        ArrayList<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            char whiteGap = (char) ('a' + i / 8);
+            char blackGap = (char) ('a' + i % 8);
+            results.add(pool.submit(() -> {
+                Board board = new Board(whiteGap, blackGap);
+                Search search = new Search(board, new HeapTranspositionTable(16), time);
+                search.setNodeLimit(nodes);
+                search.think(1, Color.WHITE, Move.NONE, System.currentTimeMillis());
+                return search.getScore();
+            }));
+        }
+        int[][] scores = new int[8][8];
+        try {
+            for (int i = 0; i < 64; i++) {
+                scores[i / 8][i % 8] = results.get(i).get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Solving the gaps failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return new GapSolver(scores);
+    }
+
+    char getWhiteGap() {
+        return whiteGap;
+    }
+
+    char getBlackGap() {
+        return blackGap;
+    }
+
+    int getScore(char whiteGap, char blackGap) {
+        return scores[whiteGap - 'a'][blackGap - 'a'];
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder("White's score, white gap by row, black gap by column\n   ");
+        for (char c = 'a'; c <= 'h'; c++) {
+            out.append(String.format("%7c", c));
+        }
+        out.append('\n');
+        for (int i = 0; i < 8; i++) {
+            out.append(' ').append((char) ('a' + i)).append(' ');
+            for (int j = 0; j < 8; j++) {
+                out.append(String.format("%7d", scores[i][j]));
+            }
+            out.append('\n');
+        }
+        out.append("Black's choice: white gap ").append(whiteGap).append(", black gap ").append(blackGap)
+                .append(" (").append(getScore(whiteGap, blackGap)).append(")\n");
+        return out.toString();
+    }
+}
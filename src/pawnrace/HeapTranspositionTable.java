@@ -0,0 +1,92 @@
+package pawnrace;
+
+import java.util.Arrays;
+
+// Buckets of 4 entries, each (key, w, b, data) longs, so a bucket is 128 bytes, two cache lines.
+// The first 3 entries of a bucket are depth-preferred, the last one is always replaced.
+// Like the old HashEntry and OffHeapTranspositionTable the bitboards are verified as well as
+// the Zobrist key, so both backends give the same answers on a key collision.
+// Keys are stored XORed with their data so that threads can share the table without locking,
+// an entry torn by two writers simply fails verification.
+class HeapTranspositionTable implements TranspositionTable {
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int ENTRY_LONGS = 4;
+    private static final int ENTRY_BYTES = ENTRY_LONGS * 8;
+
+    private long[] table;
+    private int bucketMask;
+    private int generation;
+
+    HeapTranspositionTable(int sizeMB) {
+        long buckets = Long.highestOneBit(Math.max(1L, ((long) sizeMB << 20)
+                / (ENTRY_BYTES * BUCKET_SIZE)));
+        // Java arrays are capped at 2^31 elements
+        buckets = Math.min(buckets, 1L << 26);
+        table = new long[(int) buckets * BUCKET_SIZE * ENTRY_LONGS];
+        bucketMask = (int) buckets - 1;
+        generation = 0;
+    }
+
+    public void newSearch() {
+        generation = (generation + 1) & 0xff;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        generation = 0;
+    }
+
+    int getSizeMB() {
+        return (int) (((long) table.length * 8) >> 20);
+    }
+
+    public long probe(long hash, long w, long b) {
+        int bucket = bucketIndex(hash);
+        for (int i = bucket; i < bucket + BUCKET_SIZE * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 3];
+            if ((table[i] ^ data) == hash && table[i + 1] == w && table[i + 2] == b && data != MISS) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    public void store(long hash, long w, long b, int depth, int flag, int eval, int bestMove) {
+        int bucket = bucketIndex(hash);
+        int replace = -1;
+        int shallowest = Integer.MAX_VALUE;
+        long entry = TranspositionTable.pack(depth, flag, eval, bestMove, generation);
+        for (int i = bucket; i < bucket + BUCKET_SIZE * ENTRY_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 3];
+            if (((table[i] ^ data) == hash && table[i + 1] == w && table[i + 2] == b) || data == MISS) {
+                write(i, hash, w, b, entry);
+                return;
+            }
+            if (i < bucket + (BUCKET_SIZE - 1) * ENTRY_LONGS) {
+                // Entries left over from previous searches go first
+                int value = (TranspositionTable.generation(data) == generation)
+                        ? TranspositionTable.depth(data) : -1;
+                if (value < shallowest) {
+                    shallowest = value;
+                    replace = i;
+                }
+            }
+        }
+        if (depth < shallowest) {
+            replace = bucket + (BUCKET_SIZE - 1) * ENTRY_LONGS;
+        }
+        write(replace, hash, w, b, entry);
+    }
+
+    private void write(int i, long hash, long w, long b, long entry) {
+        table[i] = hash ^ entry;
+        table[i + 1] = w;
+        table[i + 2] = b;
+        table[i + 3] = entry;
+    }
+
+    private int bucketIndex(long hash) {
+        return ((int) hash & bucketMask) * BUCKET_SIZE * ENTRY_LONGS;
+    }
+}
@@ -1,9 +1,11 @@
-class IntLong {
-    int i;
-    long l;
-
-    IntLong(int i, long l) {
-        this.i = i;
-        this.l = l;
-    }
-}
+package pawnrace;
+
+class IntLong {
+    int i;
+    long l;
+
+    IntLong(int i, long l) {
+        this.i = i;
+        this.l = l;
+    }
+}
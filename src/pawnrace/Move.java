@@ -0,0 +1,83 @@
+package pawnrace;
+
+class Move {
+    // Packed moves: from (6 bits) | to (6 bits) | capture | en passant
+    static final int NONE = 0;
+    private static final int CAPTURE = 1 << 12;
+    private static final int EN_PASSANT = 1 << 13;
+
+    private int from;
+    private int to;
+    private boolean isCapture;
+    private boolean isEnPassantCapture;
+
+
+    Move(int from, int to, boolean isCapture, boolean isEnPassantCapture) {
+        this.from = from;
+        this.to = to;
+        this.isCapture = isCapture;
+        this.isEnPassantCapture = isEnPassantCapture;
+    }
+
+    Move(int move) {
+        this(from(move), to(move), isCapture(move), isEnPassantCapture(move));
+    }
+
+    int getFrom() {
+        return from;
+    }
+
+    int getTo() {
+        return to;
+    }
+
+    boolean isCapture() {
+        return isCapture;
+    }
+
+    boolean isEnPassantCapture() {
+        return isEnPassantCapture;
+    }
+
+    boolean isDoublePush() {
+        return Math.abs(from - to) == 16;
+    }
+
+    int pack() {
+        return pack(from, to, isCapture, isEnPassantCapture);
+    }
+
+    static int pack(int from, int to, boolean isCapture, boolean isEnPassantCapture) {
+        return from | (to << 6) | (isCapture ? CAPTURE : 0) | (isEnPassantCapture ? EN_PASSANT : 0);
+    }
+
+    static int from(int move) {
+        return move & 0x3f;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 0x3f;
+    }
+
+    static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    static boolean isEnPassantCapture(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    static boolean isDoublePush(int move) {
+        return Math.abs(from(move) - to(move)) == 16;
+    }
+
+    static String toString(int move) {
+        return new Move(move).toString();
+    }
+
+    public String toString() {
+        String f = (char) ((7 - (from % 8)) + 'a') + "" + (char) ((from / 8) + '1');
+        String t = (char) ((7 - (to % 8)) + 'a') + "" + (char) ((to / 8) + '1');
+        return f + (isCapture ? 'x' : '-') + t + (isEnPassantCapture ? " ep" : "");
+    }
+}
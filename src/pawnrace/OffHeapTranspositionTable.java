@@ -0,0 +1,150 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Off-heap table so large sizes don't grow the Java heap or GC scanning.
+// Either direct memory, or a memory-mapped file which keeps the table between sessions.
+// Entries are (key, w, b, data) so like the old HashEntry the bitboards are verified too.
+// Buckets of 2 entries = 64 bytes, the first depth-preferred and the second always replaced.
+// As in HeapTranspositionTable the key is stored XORed with the data for lock-free sharing.
+class OffHeapTranspositionTable implements TranspositionTable {
+
+    private static final long MAGIC = 0x5041574e54540001L; // "PAWNTT" v1
+    private static final int HEADER_BYTES = 64;
+    private static final int ENTRY_BYTES = 32;
+    private static final int BUCKET_BYTES = 64;
+    private static final int MAX_CHUNK_SHIFT = 30;
+
+    private ByteBuffer[] chunks;
+    private int chunkShift;
+    private long bucketMask;
+    private int generation;
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+
+    // Direct memory
+    OffHeapTranspositionTable(long sizeMB) {
+        long buckets = bucketCount(sizeMB);
+        allocateChunks(buckets);
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(1 << chunkShift).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        generation = 0;
+    }
+
+    // Memory-mapped file, an existing table is reused if it was made with the same keys
+    OffHeapTranspositionTable(Path file, long sizeMB) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) > HEADER_BYTES;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        long buckets = bucketCount(sizeMB);
+        boolean warmStart = exists && header.getLong(0) == MAGIC
+                && header.getLong(8) == Zobrist.signature();
+        if (warmStart) {
+            buckets = header.getLong(16);
+        }
+        allocateChunks(buckets);
+        long chunkSize = 1L << chunkShift;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + i * chunkSize, chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (warmStart) {
+            generation = (int) header.getLong(24);
+            System.out.println("Loaded transposition table " + file);
+        } else {
+            if (exists) {
+                clear();
+            }
+            header.putLong(0, MAGIC);
+            header.putLong(8, Zobrist.signature());
+            header.putLong(16, buckets);
+        }
+    }
+
+    public void newSearch() {
+        generation = (generation + 1) & 0xff;
+    }
+
+    public void clear() {
+        for (ByteBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i += 8) {
+                chunk.putLong(i, 0);
+            }
+        }
+        generation = 0;
+    }
+
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        header.putLong(24, generation);
+        header.force();
+        for (ByteBuffer chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+    }
+
+    public long probe(long hash, long w, long b) {
+        long offset = (hash & bucketMask) * BUCKET_BYTES;
+        ByteBuffer chunk = chunks[(int) (offset >>> chunkShift)];
+        int bucket = (int) (offset & ((1L << chunkShift) - 1));
+        for (int i = bucket; i < bucket + BUCKET_BYTES; i += ENTRY_BYTES) {
+            long data = chunk.getLong(i + 24);
+            if ((chunk.getLong(i) ^ data) == hash && chunk.getLong(i + 8) == w
+                    && chunk.getLong(i + 16) == b) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    public void store(long hash, long w, long b, int depth, int flag, int eval, int bestMove) {
+        long offset = (hash & bucketMask) * BUCKET_BYTES;
+        ByteBuffer chunk = chunks[(int) (offset >>> chunkShift)];
+        int bucket = (int) (offset & ((1L << chunkShift) - 1));
+        int replace = bucket + ENTRY_BYTES;
+        long data = chunk.getLong(bucket + 24);
+        if (data == MISS || ((chunk.getLong(bucket) ^ data) == hash && chunk.getLong(bucket + 8) == w
+                && chunk.getLong(bucket + 16) == b)
+                || TranspositionTable.generation(data) != generation
+                || TranspositionTable.depth(data) <= depth) {
+            replace = bucket;
+        }
+        long entry = TranspositionTable.pack(depth, flag, eval, bestMove, generation);
+        chunk.putLong(replace, hash ^ entry);
+        chunk.putLong(replace + 8, w);
+        chunk.putLong(replace + 16, b);
+        chunk.putLong(replace + 24, entry);
+    }
+
+    private static long bucketCount(long sizeMB) {
+        return Long.highestOneBit(Math.max(1L, (sizeMB << 20) / BUCKET_BYTES));
+    }
+
+    private void allocateChunks(long buckets) {
+        long bytes = buckets * BUCKET_BYTES;
+        chunkShift = Math.min(MAX_CHUNK_SHIFT, 63 - Long.numberOfLeadingZeros(bytes));
+        chunks = new ByteBuffer[(int) (bytes >>> chunkShift)];
+        bucketMask = buckets - 1;
+    }
+}
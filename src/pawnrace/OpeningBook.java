@@ -0,0 +1,175 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Moves found by deep searches from the start of every one of the 64 gap combinations.
+// For both colours the book follows its own move and every reply of the opponent, so any
+// position the engine can reach to move in within the first plies is in it.
+// File: header, then (key, move, score) entries of 16 bytes sorted by key, memory-mapped
+// and binary searched. The key is the Zobrist hash mixed with the en passant column.
+class OpeningBook {
+
+    static final String DEFAULT_FILE = "book.bin";
+    static final int DEFAULT_PLY = 2;
+    static final int DEFAULT_DEPTH = 12;
+
+    private static final long MAGIC = 0x5041574e424b0001L; // "PAWNBK" v1
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 16;
+
+    private MappedByteBuffer entries;
+    private int size;
+
+    // Maps the book, the Zobrist keys must be the ones it was built with
+    OpeningBook(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        entries.order(ByteOrder.LITTLE_ENDIAN);
+        if (entries.capacity() < HEADER_BYTES || entries.getLong(0) != MAGIC
+                || entries.getLong(8) != Zobrist.signature()) {
+            throw new IOException(file + " isn't a book built with these Zobrist keys");
+        }
+        size = (int) entries.getLong(16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Returns the packed book move or Move.NONE
+    int probe(Board board, int lastMove) {
+        long key = key(board, board.getEnPassantColumn(lastMove));
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long entry = entries.getLong(HEADER_BYTES + middle * ENTRY_BYTES);
+            if (entry < key) {
+                low = middle + 1;
+            } else if (entry > key) {
+                high = middle - 1;
+            } else {
+                return entries.getInt(HEADER_BYTES + middle * ENTRY_BYTES + 8);
+            }
+        }
+        return Move.NONE;
+    }
+
+    static long key(Board board, int enPassantColumn) {
+        return board.getHash() ^ ((enPassantColumn + 1) * 0x9e3779b97f4a7c15L);
+    }
+
+    // Builder
+
+    private int plies;
+    private int depth;
+    private Map<Long, long[]> book;
+
+    private OpeningBook(int plies, int depth, Map<Long, long[]> book) {
+        this.plies = plies;
+        this.depth = depth;
+        this.book = book;
+    }
+
+    // Searches every gap combination to the given depth, one per thread, and writes the book
+    static void build(Path file, int plies, int depth, int threads) throws IOException {
+        Map<Long, long[]> book = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        ArrayList<Future<?>> results = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (char whiteGap = 'a'; whiteGap <= 'h'; whiteGap++) {
+            for (char blackGap = 'a'; blackGap <= 'h'; blackGap++) {
+                char w = whiteGap;
+                char b = blackGap;
+                results.add(pool.submit(() -> {
+                    long gapStart = System.currentTimeMillis();
+                    int positions = new OpeningBook(plies, depth, book).expandGaps(w, b);
+                    System.out.println("" + w + b + ": " + positions + " positions, "
+                            + (System.currentTimeMillis() - gapStart) + " ms");
+                }));
+            }
+        }
+        try {
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (Exception e) {
+            throw new IOException("Building the book failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        TreeMap<Long, long[]> sorted = new TreeMap<>(book);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(MAGIC).putLong(Zobrist.signature()).putLong(sorted.size()).putLong(plies);
+        for (Map.Entry<Long, long[]> entry : sorted.entrySet()) {
+            out.putLong(entry.getKey()).putInt((int) entry.getValue()[0]).putInt((int) entry.getValue()[1]);
+        }
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            stream.write(out.array());
+        }
+        System.out.println(sorted.size() + " positions written to " + file + " in "
+                + (System.currentTimeMillis() - start) / 1000 + " s");
+    }
+
+    private int expandGaps(char whiteGap, char blackGap) {
+        Board board = new Board(whiteGap, blackGap);
+        Search search = new Search(board, new HeapTranspositionTable(16), Integer.MAX_VALUE);
+        int[][] moveBuffers = new int[plies][Game.MAX_MOVES];
+        return expand(board, search, moveBuffers, Color.WHITE, Move.NONE, 0, Color.WHITE)
+                + expand(board, search, moveBuffers, Color.WHITE, Move.NONE, 0, Color.BLACK);
+    }
+
+    // Returns how many positions were searched
+    private int expand(Board board, Search search, int[][] moveBuffers, int col, int lastMove, int ply,
+                       int engine) {
+        Bitboard bb = new Bitboard(board);
+        if (ply >= plies || bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0
+                || board.getWhitePieces() == 0 || board.getBlackPieces() == 0) {
+            return 0;
+        }
+        int[] moves = moveBuffers[ply];
+        int moveCount = Game.getAllValidMoves(bb, col, board.getEnPassantColumn(lastMove), moves);
+        int positions = 0;
+        if (col == engine) {
+            long key = key(board, board.getEnPassantColumn(lastMove));
+            long[] entry = book.get(key);
+            if (entry == null && moveCount > 0) {
+                int move = search.think(1, depth, col, lastMove, System.currentTimeMillis());
+                entry = new long[]{move, search.getScore()};
+                book.putIfAbsent(key, entry);
+                positions++;
+            }
+            if (entry != null) {
+                int move = (int) entry[0];
+                board.applyMove(move);
+                positions += expand(board, search, moveBuffers, -col, move, ply + 1, engine);
+                board.unapplyMove(move);
+            }
+        } else {
+            for (int i = 0; i < moveCount; i++) {
+                int move = moves[i];
+                board.applyMove(move);
+                positions += expand(board, search, moveBuffers, -col, move, ply + 1, engine);
+                board.unapplyMove(move);
+            }
+        }
+        return positions;
+    }
+}
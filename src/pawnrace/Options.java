@@ -0,0 +1,59 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// Command line options and the setup the entry points share. Kept apart from PawnRace so that
+// the headless entry point in EngineProtocol loads no AWT or Swing class.
+class Options {
+
+    // Options are passed as --name=value
+    static String get(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + name + "=")) {
+                return arg.substring(name.length() + 3);
+            }
+        }
+        return defaultValue;
+    }
+
+    static boolean has(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals("--" + name) || arg.startsWith("--" + name + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The messages start with the prefix, the protocol wants them as info strings
+    static void loadBitbases(String directory, String prefix) {
+        try {
+            int loaded = Bitbases.load(Paths.get(directory));
+            if (loaded > 0) {
+                System.out.println(prefix + "Loaded " + loaded + " bitbases up to " + Bitbases.maxWhite() + "v"
+                        + Bitbases.maxBlack());
+            }
+        } catch (IOException e) {
+            System.out.println(prefix + "Couldn't load the bitbases from " + directory + ": " + e.getMessage());
+        }
+    }
+
+    // --tt=heap (default), --tt=offheap or --tt-file=<path> to keep the table between sessions
+    static TranspositionTable getTranspositionTable(String[] args) {
+        int hashSize = Integer.parseInt(get(args, "hash",
+                Integer.toString(Game.DEFAULT_HASH_SIZE)));
+        String file = get(args, "tt-file", null);
+        if (file != null) {
+            try {
+                return new OffHeapTranspositionTable(Paths.get(file), hashSize);
+            } catch (IOException e) {
+                System.out.println("Couldn't map " + file + ", using an in-memory table");
+            }
+        }
+        if (get(args, "tt", "heap").equals("offheap")) {
+            return new OffHeapTranspositionTable(hashSize);
+        }
+        return new HeapTranspositionTable(hashSize);
+    }
+}
@@ -0,0 +1,237 @@
+package pawnrace;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Young Brothers Wait: at the root and at PV nodes close to it the eldest move is searched
+// on its own, then the rest of the siblings are searched in parallel with the bound it set.
+// Every task works on its own Board and Search so nothing is shared except the table.
+class ParallelSearch {
+
+    static final int DEFAULT_SPLIT_DEPTH = 4;
+    static final int DEFAULT_SPLIT_PLY = 2;
+
+    private ForkJoinPool pool;
+    private TranspositionTable transpositionTable;
+    private int threshold;
+    private int splitDepth;
+    private int splitPly;
+    private long startTime;
+
+    private Search root;
+    private ConcurrentLinkedQueue<Search> idle;
+    private ConcurrentLinkedQueue<Search> searches;
+
+    // Tuning
+    private AtomicLong splits;
+    private AtomicLong siblings;
+    private AtomicLong cutoffs;
+    private long nodes;
+
+    // Siblings of one split, aborted when one of them fails high or the split above is aborted
+    static class Split {
+        private final Split parent;
+        private volatile boolean cutoff;
+
+        Split(Split parent) {
+            this.parent = parent;
+        }
+
+        boolean isAborted() {
+            return cutoff || (parent != null && parent.isAborted());
+        }
+    }
+
+    ParallelSearch(Board board, TranspositionTable transpositionTable, int threshold, int threads) {
+        this.transpositionTable = transpositionTable;
+        this.threshold = threshold;
+        pool = new ForkJoinPool(threads);
+        splitDepth = DEFAULT_SPLIT_DEPTH;
+        splitPly = DEFAULT_SPLIT_PLY;
+        root = new Search(board, transpositionTable, threshold);
+        root.setParallel(this);
+        idle = new ConcurrentLinkedQueue<>();
+        searches = new ConcurrentLinkedQueue<>();
+        splits = new AtomicLong();
+        siblings = new AtomicLong();
+        cutoffs = new AtomicLong();
+    }
+
+    void setSplit(int splitDepth, int splitPly) {
+        this.splitDepth = splitDepth;
+        this.splitPly = splitPly;
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    int think(int startDepth, int endDepth, int col, int lastMove, long startTime) {
+        this.startTime = startTime;
+        splits.set(0);
+        siblings.set(0);
+        cutoffs.set(0);
+        for (Search search : searches) {
+            search.resetCounters();
+        }
+        int move = pool.invoke(ForkJoinTask.adapt(
+                () -> root.think(startDepth, endDepth, col, lastMove, startTime)));
+        nodes = countNodes();
+        return move;
+    }
+
+    Search getRoot() {
+        return root;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    // While the search runs, read from the other threads so it may be a little behind
+    long countNodes() {
+        long count = root.getNodes();
+        for (Search search : searches) {
+            count += search.getNodes();
+        }
+        return count;
+    }
+
+    long getSplits() {
+        return splits.get();
+    }
+
+    long getSiblings() {
+        return siblings.get();
+    }
+
+    long getCutoffs() {
+        return cutoffs.get();
+    }
+
+    boolean canSplit(int depth, int ply) {
+        return depth >= splitDepth && ply <= splitPly;
+    }
+
+    // Searches moves[1..moveCount) in parallel, filling in their evaluations.
+    // Returns true if any of them ran out of time.
+    boolean searchSiblings(Board board, int[] moves, int moveCount, int depth, int alpha, int beta,
+                           int col, int ply, Split parent, int[] evals, int[] initialEvals) {
+        splits.incrementAndGet();
+        Split split = new Split(parent);
+        SiblingTask[] tasks = new SiblingTask[moveCount - 1];
+        for (int i = 1; i < moveCount; i++) {
+            tasks[i - 1] = new SiblingTask(board, moves[i], depth, alpha, beta, col, ply, split);
+        }
+        siblings.addAndGet(tasks.length);
+        ForkJoinTask.invokeAll(tasks);
+        boolean timedOut = false;
+        for (int i = 1; i < moveCount; i++) {
+            evals[i] = tasks[i - 1].eval;
+            initialEvals[i] = tasks[i - 1].initialEval;
+            timedOut |= tasks[i - 1].timedOut;
+        }
+        return timedOut;
+    }
+
+    private Search borrow(Split split) {
+        Search search = idle.poll();
+        if (search == null) {
+            search = new Search(null, transpositionTable, threshold);
+            search.setParallel(this);
+            searches.add(search);
+        }
+        search.reset(startTime, split, root.getNodeLimit());
+        return search;
+    }
+
+    // Prints the speedup and search overhead over a serial search of the same depth
+    static void measure(Board board, int col, int depth, int threads, int splitDepth, int splitPly) {
+        Search serial = new Search(new Board(board),
+                new HeapTranspositionTable(Game.DEFAULT_HASH_SIZE), Integer.MAX_VALUE);
+        long start = System.nanoTime();
+        serial.think(1, depth, col, Move.NONE, System.currentTimeMillis());
+        long serialTime = System.nanoTime() - start;
+        long serialNodes = serial.getNodes();
+
+        ParallelSearch parallel = new ParallelSearch(new Board(board),
+                new HeapTranspositionTable(Game.DEFAULT_HASH_SIZE), Integer.MAX_VALUE, threads);
+        parallel.setSplit(splitDepth, splitPly);
+        start = System.nanoTime();
+        parallel.think(1, depth, col, Move.NONE, System.currentTimeMillis());
+        long parallelTime = System.nanoTime() - start;
+        parallel.shutdown();
+
+        System.out.println("Serial:   " + serialNodes + " nodes, " + serialTime / 1000000 + " ms");
+        System.out.println("Parallel: " + parallel.getNodes() + " nodes, " + parallelTime / 1000000
+                + " ms, " + parallel.getSplits() + " splits, " + parallel.getSiblings()
+                + " siblings, " + parallel.getCutoffs() + " cutoffs");
+        System.out.printf("Speedup = %.2f, Search overhead = %.1f%%%n",
+                (double) serialTime / parallelTime,
+                100.0 * (parallel.getNodes() - serialNodes) / serialNodes);
+    }
+
+    private class SiblingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Board parentBoard;
+        private final int move;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private final int col;
+        private final int ply;
+        private final Split split;
+
+        int eval;
+        int initialEval;
+        boolean timedOut;
+
+        SiblingTask(Board parentBoard, int move, int depth, int alpha, int beta, int col, int ply,
+                    Split split) {
+            this.parentBoard = parentBoard;
+            this.move = move;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.col = col;
+            this.ply = ply;
+            this.split = split;
+        }
+
+        protected void compute() {
+            // The worst result for the side choosing between the siblings
+            eval = -Search.INFINITY;
+            initialEval = -Search.INFINITY;
+            if (split.isAborted()) {
+                timedOut = !split.cutoff;
+                return;
+            }
+            Board board = new Board(parentBoard);
+            board.applyMove(move);
+            Search search = borrow(split);
+            search.setBoard(board);
+            // Null window first, like the serial principal variation search. A sibling that needs
+            // the full window is a PV node, so it may split again below the root
+            int result = -search.negamax(depth, -alpha - 1, -alpha, -col, ply, move, false);
+            if (!search.isTimedOut() && result > alpha && result < beta) {
+                result = -search.negamax(depth, -beta, -alpha, -col, ply, move, true);
+            }
+            if (!search.isTimedOut()) {
+                eval = result;
+                initialEval = Search.tieBreakEval(board, new Bitboard(), move, ply - 1) * col;
+                if (eval >= beta) {
+                    split.cutoff = true;
+                    cutoffs.incrementAndGet();
+                }
+            } else {
+                // Siblings stopped by a cutoff in this split don't matter, anything else does
+                timedOut = !split.cutoff;
+            }
+            idle.add(search);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Scanner;
+
+public class PawnRace {
+
+    public static void main(String[] args) {
+        // --headless plays over stdin/stdout with the protocol in EngineProtocol, no window
+        if (Options.has(args, "headless")) {
+            EngineProtocol.main(args);
+            return;
+        }
+
+        Zobrist.GenerateRandomNumbers();
+        Bitboard.initialize();
+
+        String perft = Options.get(args, "perft", null);
+        if (perft != null) {
+            int depth = Integer.parseInt(perft);
+            int threads = Integer.parseInt(Options.get(args, "threads", "1"));
+            int hashSize = Integer.parseInt(Options.get(args, "perft-hash", "0"));
+            String position = Options.get(args, "position", null);
+            String gaps = Options.get(args, "gaps", null);
+            if (position != null) {
+                Perft.divide(Position.parse(position), depth, threads, hashSize, Options.has(args, "divide"));
+            } else if (gaps != null) {
+                Perft.divide(Position.start(gaps.charAt(0), gaps.charAt(1)), depth, threads, hashSize,
+                        Options.has(args, "divide"));
+            } else {
+                Perft.allGaps(depth, threads, hashSize);
+            }
+            return;
+        }
+
+        // --generate-bitbases=<white>,<black> solves every ending up to that many pawns a side
+        String bitbases = Options.get(args, "bitbases", Bitbases.DEFAULT_DIRECTORY);
+        String generate = Options.get(args, "generate-bitbases", null);
+        if (generate != null) {
+            String[] pawns = generate.split(",");
+            try {
+                Bitbases.generate(Paths.get(bitbases), Integer.parseInt(pawns[0]), Integer.parseInt(pawns[1]));
+            } catch (IOException e) {
+                System.out.println("Couldn't write the bitbases to " + bitbases + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        // --build-book searches the start of every gap combination, see OpeningBook
+        String book = Options.get(args, "book", OpeningBook.DEFAULT_FILE);
+        if (Options.has(args, "build-book")) {
+            try {
+                OpeningBook.build(Paths.get(book),
+                        Integer.parseInt(Options.get(args, "book-ply", Integer.toString(OpeningBook.DEFAULT_PLY))),
+                        Integer.parseInt(Options.get(args, "book-depth", Integer.toString(OpeningBook.DEFAULT_DEPTH))),
+                        Integer.parseInt(Options.get(args, "threads",
+                                Integer.toString(Runtime.getRuntime().availableProcessors()))));
+            } catch (IOException e) {
+                System.out.println("Couldn't build the book " + book + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        // --solve-gaps prints black's best gap choice, --choose-gaps plays it instead of asking
+        if (Options.has(args, "solve-gaps")) {
+            System.out.print(solveGaps(args));
+            return;
+        }
+
+        String splitBench = Options.get(args, "split-bench", null);
+        if (splitBench != null) {
+            Board board = new Board(getFileInput("white"), getFileInput("black"));
+            ParallelSearch.measure(board, Color.WHITE, Integer.parseInt(splitBench),
+                    Integer.parseInt(Options.get(args, "threads",
+                            Integer.toString(Runtime.getRuntime().availableProcessors()))),
+                    Integer.parseInt(Options.get(args, "split-depth",
+                            Integer.toString(ParallelSearch.DEFAULT_SPLIT_DEPTH))),
+                    Integer.parseInt(Options.get(args, "split-ply",
+                            Integer.toString(ParallelSearch.DEFAULT_SPLIT_PLY))));
+            return;
+        }
+
+        // --tournament=<games> plays --engine-a=<settings> against --engine-b=<settings>, see Tournament.
+        // --threads games at a time, --sprt=<elo0>,<elo1> stops once the test decides
+        String tournament = Options.get(args, "tournament", null);
+        if (tournament != null) {
+            Options.loadBitbases(bitbases, "");
+            Evaluation.setCacheSize(Integer.parseInt(Options.get(args, "eval-cache",
+                    Integer.toString(EvaluationCache.DEFAULT_SIZE))));
+            String sprt = Options.get(args, "sprt", null);
+            try {
+                Tournament.Engine a = Tournament.Engine.parse(Options.get(args, "engine-a", ""));
+                Tournament.Engine b = Tournament.Engine.parse(Options.get(args, "engine-b", ""));
+                Tournament games = (sprt != null)
+                        ? new Tournament(a, b, true, Double.parseDouble(sprt.split(",")[0]),
+                                Double.parseDouble(sprt.split(",")[1]))
+                        : new Tournament(a, b, false, 0, 0);
+                games.run(Integer.parseInt(tournament), Integer.parseInt(Options.get(args, "threads",
+                        Integer.toString(Runtime.getRuntime().availableProcessors()))), System.out);
+            } catch (IOException e) {
+                System.out.println("Couldn't load the book: " + e.getMessage());
+            }
+            return;
+        }
+
+        UI.initialize();
+        Options.loadBitbases(bitbases, "");
+        Evaluation.setCacheSize(Integer.parseInt(Options.get(args, "eval-cache",
+                Integer.toString(EvaluationCache.DEFAULT_SIZE))));
+
+        char whiteGap;
+        char blackGap;
+        if (Options.has(args, "choose-gaps")) {
+            GapSolver gaps = solveGaps(args);
+            System.out.print(gaps);
+            whiteGap = gaps.getWhiteGap();
+            blackGap = gaps.getBlackGap();
+        } else {
+            whiteGap = getFileInput("white");
+            blackGap = getFileInput("black");
+        }
+        Board board = new Board(whiteGap, blackGap);
+        Game game = new Game(board, 5000, Options.getTranspositionTable(args));
+        game.setThreads(Integer.parseInt(Options.get(args, "threads", "1")));
+        game.setForkJoin(Options.get(args, "parallel", "lazysmp").equals("forkjoin"));
+        game.setPonder(Options.has(args, "ponder"));
+        if (Files.exists(Paths.get(book))) {
+            try {
+                OpeningBook openingBook = new OpeningBook(Paths.get(book));
+                game.setOpeningBook(openingBook);
+                System.out.println("Loaded " + openingBook.size() + " book positions");
+            } catch (IOException e) {
+                System.out.println("Couldn't load the book: " + e.getMessage());
+            }
+        }
+        final boolean isBlackComputer = getAIBlackToPlay();
+        final boolean isWhiteComputer = !isBlackComputer;
+
+        JPanelBoard.open(game, board, isWhiteComputer, isBlackComputer);
+        // UI gameUI = new UI();
+
+//        while (game.getWinner() == 0) {
+//            gameUI.update();
+//            board.display();
+//            game.makeMove(gameUI, blackToPlay ? isBlackComputer : isWhiteComputer);
+//            blackToPlay = !blackToPlay;
+//        }
+
+//        if (game.getWinner() == Color.WHITE) {
+//            System.out.println("White Wins");
+//        } else if (game.getWinner() == Color.BLACK) {
+//            System.out.println("Black Wins");
+//        }
+    }
+
+    // --gap-time=<ms> and --gap-nodes=<n> per combination
+    private static GapSolver solveGaps(String[] args) {
+        return GapSolver.solve(
+                Integer.parseInt(Options.get(args, "threads",
+                        Integer.toString(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(Options.get(args, "gap-time", Integer.toString(Integer.MAX_VALUE))),
+                Long.parseLong(Options.get(args, "gap-nodes", Long.toString(GapSolver.DEFAULT_NODES))));
+    }
+
+    private static boolean getAIBlackToPlay() {
+        Scanner input = new Scanner(System.in);
+        int col = 0;
+        do {
+            System.out.print("Enter the AI's color: ");
+            String in = input.nextLine().toLowerCase();
+            switch (in) {
+                case "white":
+                    col = 1;
+                    break;
+                case "black":
+                    col = -1;
+                    break;
+            }
+        } while (col == 0);
+        return col == Color.BLACK;
+    }
+
+    private static char getFileInput(String col) {
+        Scanner input = new Scanner(System.in);
+        char c = ' ';
+        do {
+            System.out.print("Enter the gap for " + col + ": ");
+            String in = input.nextLine().toLowerCase();
+            if (in.length() != 1) {
+                continue;
+            }
+            c = in.charAt(0);
+        } while (c < 'a' || 'h' < c);
+        return c;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package pawnrace;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Counts the leaf nodes of the game tree to a fixed depth to check and time
+// the move generator and Board.applyMove / unapplyMove.
+// The last ply is counted from the bitboards without generating the moves.
+class Perft {
+
+    private static final int MAX_DEPTH = 64;
+    // Below this the fork-join tasks don't split any more
+    private static final int SPLIT_DEPTH = 4;
+
+    private int[][] moveBuffers;
+    private Bitboard bb;
+    private long[] table;
+    private int tableMask;
+
+    Perft(long[] table) {
+        moveBuffers = new int[MAX_DEPTH][Game.MAX_MOVES];
+        bb = new Bitboard();
+        this.table = table;
+        tableMask = (table != null) ? table.length / 2 - 1 : 0;
+    }
+
+    // Entries are (key ^ count, count) so that parallel tasks can share the table
+    static long[] createTable(int sizeMB) {
+        if (sizeMB <= 0) {
+            return null;
+        }
+        return new long[(int) Math.min(1L << 30, Long.highestOneBit(((long) sizeMB << 20) / 8))];
+    }
+
+    long perft(Board board, int col, int lastMove, int depth) {
+        bb.set(board);
+        if (bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0) {
+            return 0;
+        }
+        int enPassantColumn = board.getEnPassantColumn(lastMove);
+        if (depth == 1) {
+            return Game.countValidMoves(bb, col, enPassantColumn);
+        }
+
+        long key = 0;
+        int index = 0;
+        if (table != null) {
+            key = board.getHash() ^ ((depth * 16L + enPassantColumn + 1) * 0x9e3779b97f4a7c15L);
+            index = ((int) key & tableMask) * 2;
+            long count = table[index + 1];
+            if ((table[index] ^ count) == key) {
+                return count;
+            }
+        }
+
+        int[] moves = moveBuffers[depth];
+        int moveCount = Game.getAllValidMoves(bb, col, enPassantColumn, moves);
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.applyMove(moves[i]);
+            nodes += perft(board, -col, moves[i], depth - 1);
+            board.unapplyMove(moves[i]);
+        }
+
+        if (table != null) {
+            table[index] = key ^ nodes;
+            table[index + 1] = nodes;
+        }
+        return nodes;
+    }
+
+    // Prints the count below every root move, then the total and the speed
+    static long divide(Position position, int depth, int threads, int hashSize, boolean divide) {
+        long[] table = createTable(hashSize);
+        Board board = position.board;
+        int[] moves = new int[Game.MAX_MOVES];
+        int moveCount = Game.getAllValidMoves(new Bitboard(board), position.color,
+                board.getEnPassantColumn(position.lastMove), moves);
+        long start = System.nanoTime();
+        long total = 0;
+        ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        for (int i = 0; i < moveCount; i++) {
+            long nodes;
+            if (depth <= 1) {
+                nodes = 1;
+            } else if (pool != null) {
+                Board child = new Board(board);
+                child.applyMove(moves[i]);
+                nodes = pool.invoke(new PerftTask(child, -position.color, moves[i], depth - 1, table));
+            } else {
+                board.applyMove(moves[i]);
+                nodes = new Perft(table).perft(board, -position.color, moves[i], depth - 1);
+                board.unapplyMove(moves[i]);
+            }
+            if (divide) {
+                System.out.println(Move.toString(moves[i]) + ": " + nodes);
+            }
+            total += nodes;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        long time = System.nanoTime() - start;
+        System.out.println("Nodes = " + total + ", Time = " + time / 1000000 + " ms, Nodes/s = "
+                + (time > 0 ? total * 1000000000L / time : 0));
+        return total;
+    }
+
+    // Runs perft from every one of the 64 gap combinations
+    static long allGaps(int depth, int threads, int hashSize) {
+        long total = 0;
+        long start = System.nanoTime();
+        for (char whiteGap = 'a'; whiteGap <= 'h'; whiteGap++) {
+            for (char blackGap = 'a'; blackGap <= 'h'; blackGap++) {
+                System.out.print(whiteGap + "" + blackGap + ": ");
+                total += divide(Position.start(whiteGap, blackGap), depth, threads, hashSize, false);
+            }
+        }
+        long time = System.nanoTime() - start;
+        System.out.println("Total = " + total + ", Time = " + time / 1000000 + " ms, Nodes/s = "
+                + (time > 0 ? total * 1000000000L / time : 0));
+        return total;
+    }
+
+    private static class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int col;
+        private final int lastMove;
+        private final int depth;
+        private final long[] table;
+
+        PerftTask(Board board, int col, int lastMove, int depth, long[] table) {
+            this.board = board;
+            this.col = col;
+            this.lastMove = lastMove;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        protected Long compute() {
+            Bitboard bb = new Bitboard(board);
+            if (depth <= SPLIT_DEPTH || bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0) {
+                return new Perft(table).perft(board, col, lastMove, depth);
+            }
+            int[] moves = new int[Game.MAX_MOVES];
+            int moveCount = Game.getAllValidMoves(bb, col, board.getEnPassantColumn(lastMove), moves);
+            PerftTask[] tasks = new PerftTask[moveCount];
+            for (int i = 0; i < moveCount; i++) {
+                Board child = new Board(board);
+                child.applyMove(moves[i]);
+                tasks[i] = new PerftTask(child, -col, moves[i], depth - 1, table);
+            }
+            invokeAll(tasks);
+            long nodes = 0;
+            for (PerftTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package pawnrace;
+
+// A position to search from: the board, the side to move and the last move (for en passant).
+// Written like the pawn part of a FEN, white pawns are 'P' and black pawns 'p', followed by the
+// side to move and the en passant file, e.g. "8/ppppppp1/8/8/8/8/1PPPPPPP/8 w -"
+class Position {
+    Board board;
+    int color;
+    int lastMove;
+
+    Position(Board board, int color, int lastMove) {
+        this.board = board;
+        this.color = color;
+        this.lastMove = lastMove;
+    }
+
+    static Position start(char whiteGap, char blackGap) {
+        return new Position(new Board(whiteGap, blackGap), Color.WHITE, Move.NONE);
+    }
+
+    static Position parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Expected 8 ranks: " + fen);
+        }
+        int[] squares = new int[64];
+        for (int r = 0; r < 8; r++) {
+            int file = 0;
+            for (char c : ranks[r].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    file += c - '0';
+                    continue;
+                }
+                if (file > 7) {
+                    throw new IllegalArgumentException("Rank too long: " + ranks[r]);
+                }
+                int square = square(file, 7 - r);
+                if (c == 'P') {
+                    squares[square] = Color.WHITE;
+                } else if (c == 'p') {
+                    squares[square] = Color.BLACK;
+                } else {
+                    throw new IllegalArgumentException("Unknown piece: " + c);
+                }
+                file++;
+            }
+        }
+        int color = (fields.length > 1 && fields[1].equals("b")) ? Color.BLACK : Color.WHITE;
+        int lastMove = Move.NONE;
+        if (fields.length > 2 && !fields[2].equals("-")) {
+            int file = fields[2].charAt(0) - 'a';
+            // The opponent's double push that allows the capture
+            lastMove = (color == Color.WHITE)
+                    ? Move.pack(square(file, 6), square(file, 4), false, false)
+                    : Move.pack(square(file, 1), square(file, 3), false, false);
+        }
+        return new Position(new Board(squares, color == Color.BLACK), color, lastMove);
+    }
+
+    private static int square(int file, int rank) {
+        return rank * 8 + (7 - file);
+    }
+}
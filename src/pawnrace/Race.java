@@ -0,0 +1,157 @@
+package pawnrace;
+
+// Races decided by passed pawns, on colour-normalised bitboards ('us' is to move and goes north).
+// A passer is a pawn that no enemy pawn can get in front of, on its own or the adjacent files,
+// while only the passer moves: nothing can block or capture it on its way and none of its
+// pushes get in the way of the other side's pawns.
+// The side to move wins if its fastest passer promotes no later than any pawn of theirs could,
+// and they can't be stalemated on the way. It loses if their fastest passer beats every pawn of
+// ours and we can't be stalemated. Everything is whole-board masks, constant cost per node.
+class Race {
+
+    static final int UNKNOWN = 0;
+    static final int WIN = 1;
+    static final int LOSS = 2;
+
+    private static final long FIFTH_RANK_AND_UP = 0xffffffff00000000L;
+
+    // Moves to promote from each square, a pawn on its second rank can double push
+    private static final int[] promotionMoves = new int[64];
+
+    static {
+        for (int i = 8; i < 64; i++) {
+            int rank = i / 8;
+            promotionMoves[i] = 7 - rank - (rank == 1 ? 1 : 0);
+        }
+    }
+
+    static int resolve(long us, long them, int enPassantColumn) {
+        long ours = Bitboard.flip(us);
+        long theirs = Bitboard.flip(them);
+        int theirFastest = promotionMoves[63 - Long.numberOfLeadingZeros(theirs)];
+        // It's our move, so our pawns only have to be passers once they've been pushed.
+        // Their pawns alone rule out most of them before the capture fill is needed
+        long pushed = Bitboard.singlePush(frontmost(us), us | them) & ~span(them);
+        if (pushed != 0 && movesAfterPush(pushed, us | them) <= theirFastest) {
+            pushed &= ~span(reach(us, them));
+            if (pushed != 0) {
+                int moves = movesAfterPush(pushed, us | them);
+                if (moves <= theirFastest && freeMoves(theirs, ours) >= moves - 1) {
+                    return WIN;
+                }
+            }
+        }
+        // Their passers have to be safe already, we move first
+        long theirPassers = frontmost(theirs) & ~span(ours);
+        if (enPassantColumn >= 0) {
+            // The pawn that just double pushed isn't safe if it can be taken en passant
+            long captured = (Bitboard.enPassantLeft(us, them, enPassantColumn)
+                    | Bitboard.enPassantRight(us, them, enPassantColumn)) >>> 8;
+            theirPassers &= ~Bitboard.flip(captured);
+        }
+        if (theirPassers != 0) {
+            int moves = promotionMoves[63 - Long.numberOfLeadingZeros(theirPassers)];
+            int ourFastest = promotionMoves[63 - Long.numberOfLeadingZeros(us)];
+            if (moves < ourFastest) {
+                theirPassers &= ~span(reach(theirs, ours));
+                if (theirPassers != 0) {
+                    moves = promotionMoves[63 - Long.numberOfLeadingZeros(theirPassers)];
+                    if (moves < ourFastest && freeMoves(us, them) >= moves) {
+                        return LOSS;
+                    }
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    // The square of the fastest passer, only meaningful when resolve returned WIN
+    static int fastestPasser(long us, long them) {
+        long pushed = Bitboard.singlePush(frontmost(us), us | them) & ~span(reach(us, them));
+        return 63 - Long.numberOfLeadingZeros(pushed) - 8;
+    }
+
+    // For the most advanced of the pushed pawns, counting the push. From the second rank
+    // it can be a double push
+    private static int movesAfterPush(long pushed, long occupied) {
+        int square = 63 - Long.numberOfLeadingZeros(pushed);
+        int moves = 1 + promotionMoves[square];
+        if (square / 8 == 2 && ((occupied >>> (square + 8)) & 1) == 0) {
+            moves--;
+        }
+        return moves;
+    }
+
+    // Not exact: the most advanced pawn that is or will be passed after a push, or that has
+    // nothing in front of it from the fifth rank on and at least as many defenders as attackers
+    // where it goes, if no pawn of theirs is closer to promoting. Returns the pawn's square or -1.
+    // Of the 3v2 positions without en passant where it finds one, resolve is UNKNOWN and the side
+    // to move isn't stalemated, 3.8% (31924 of 843957) are draws in the bitbases and none are
+    // lost. In 3v1 it's 18.5%, so the search only uses it as a bonus
+    static int breakthrough(long us, long them) {
+        long theirAttacks = Bitboard.enemyAttacksLeft(them) | Bitboard.enemyAttacksRight(them);
+        long theirDoubleAttacks = Bitboard.enemyAttacksLeft(them) & Bitboard.enemyAttacksRight(them);
+        long ourAttacks = Bitboard.attacksLeft(us) | Bitboard.attacksRight(us);
+        long ourDoubleAttacks = Bitboard.attacksLeft(us) & Bitboard.attacksRight(us);
+        long outnumbered = (theirAttacks & ~ourAttacks) | (theirDoubleAttacks & ~ourDoubleAttacks);
+        long passed = span(them);
+        long candidates = us & FIFTH_RANK_AND_UP & ~(Bitboard.southFill(us | them) >>> 8) & ~(outnumbered >>> 8);
+        long pawns = (us & ~(passed & (passed >>> 8))) | candidates;
+        if (pawns == 0) {
+            return -1;
+        }
+        int pawn = 63 - Long.numberOfLeadingZeros(pawns);
+        if (7 - pawn / 8 > Long.numberOfTrailingZeros(them) / 8 || (((us | them) >>> (pawn + 8)) & 1) != 0) {
+            return -1;
+        }
+        return pawn;
+    }
+
+    // Pawns without one of our own in front of them
+    private static long frontmost(long us) {
+        return us & ~(Bitboard.southFill(us) >>> 8);
+    }
+
+    // Squares in front of which, on the same or an adjacent file, there's one of their pawns
+    private static long span(long them) {
+        long behind = Bitboard.southFill(them) >>> 8;
+        return behind | Bitboard.westOne(behind) | Bitboard.eastOne(behind);
+    }
+
+    // Squares their pawns can get to while ours stay where they are. They change files by
+    // capturing ours, so it's all of these that a passer mustn't have in front of it
+    private static long reach(long us, long them) {
+        long reach = them;
+        for (int i = 0; i < 6; i++) {
+            reach |= ((reach >>> 8) & ~us)
+                    | ((Bitboard.enemyAttacksLeft(reach) | Bitboard.enemyAttacksRight(reach)) & us);
+        }
+        return reach;
+    }
+
+    // Moves the losing side can't avoid having while only the winner's passer moves, so it
+    // can't run out of them for a stalemate. Pawns that can ever capture don't count, a capture
+    // can take a pawn to a blocked square. The rest are pushes, double where that uses them up
+    // faster
+    private static int freeMoves(long us, long them) {
+        long empty = ~(us | them);
+        long captureFrom = Bitboard.enemyAttacksLeft(them) | Bitboard.enemyAttacksRight(them);
+        long runs = us;
+        for (int i = 0; i < 6; i++) {
+            runs |= (runs << 8) & empty;
+        }
+        // Back down every file from the squares captures can be made from
+        long capturing = captureFrom & runs;
+        for (int i = 0; i < 6; i++) {
+            capturing |= (capturing >>> 8) & runs;
+        }
+        long pawns = us & ~capturing;
+        long run = pawns;
+        int count = -Long.bitCount(Bitboard.doublePush(pawns, them | (us & ~pawns)));
+        for (int i = 0; i < 6; i++) {
+            run = (run << 8) & empty;
+            count += Long.bitCount(run);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,688 @@
+package pawnrace;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// The state of one searching thread, helpers get their own copy of the board
+// and share the transposition table with the main thread (Lazy SMP)
+class Search {
+
+    static final int INFINITY = 40000;
+    static final int MAX_PLY = 128;
+    static final int ASPIRATION_WINDOW = 50;
+    // Below a real promotion so that the search still prefers winning now
+    static final int BITBASE_WIN = INFINITY - MAX_PLY;
+
+    // Move ordering: hash move, captures that win a pawn, even trades, killers, countermove, then history
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int COUNTER_MOVE_SCORE = 1 << 27;
+    private static final int MAX_HISTORY = 1 << 26;
+
+    // Move generation stages
+    private static final int HASH_MOVE_STAGE = 0;
+    private static final int CAPTURE_STAGE = 1;
+    private static final int PUSH_STAGE = 2;
+
+    // Late move reductions: quiet moves at non-PV nodes ordered after the first few,
+    // below the killers and the countermove, are searched a ply shallower
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MOVES = 3;
+    // Futility pruning at the frontier, the margin depends on how many ranks the most
+    // advanced pawn on the board still has to go. Races closer than that aren't pruned
+    private static final int FUTILITY_DEPTH = 1;
+    private static final int[] RACE_MARGIN = {0, 0, 0, 0, 200, 150, 150, 150};
+    // For the side to move at a leaf with a breakthrough, Race.breakthrough. Well below BITBASE_WIN.
+    // One-sided on purpose: the other side's breakthrough is a tempo behind and may still be met.
+    // Subtracting it as well lost in self-play, so odd and even depths see the bonus from
+    // different sides and the aspiration window re-searches when that moves the score
+    private static final int BREAKTHROUGH_BONUS = 1000;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+    private volatile int threshold;
+    private long nodeLimit = Long.MAX_VALUE;
+    private TimeManager timeManager;
+    private volatile boolean stop;
+    private boolean timedOut;
+    // Nodes until the clock is read again, and whether it was past the hard limit then
+    private int clockCountdown;
+    private boolean hardLimitReached;
+
+    // Set when the search is split with fork-join (Young Brothers Wait)
+    private ParallelSearch parallel;
+    private ParallelSearch.Split split;
+
+    // Per-ply packed move buffers and bitboard views so the search doesn't allocate
+    private int[][] moveBuffers;
+    private int[][] moveScores;
+    private Bitboard[] bitboards;
+
+    // Quiet moves that caused cutoffs, by ply, by from/to squares and as replies to the last move
+    private int[][] killers;
+    private int[] history;
+    private int[] counterMoves;
+    // The root's best move so far, only from moves that were searched to the end: after a stop
+    // the rest of the tree returns static evals
+    private int rootMove;
+    private int rootFirstMove;
+    private boolean rootWinningMove;
+
+    // Move to play, and the result of the deepest iteration that finished in time
+    private int bestMove;
+    private int completedMove;
+    private int completedDepth;
+    private int score;
+
+    // Debugging
+    private long nodes;
+    private int maxDepth;
+    private int hits;
+    private int bitbaseHits;
+    private int raceHits;
+    private long reductions;
+    private long researches;
+    private long futilityPrunes;
+    private long[] iterationNodes;
+    private volatile Consumer<SearchInfo> listener;
+
+    Search(Board board, TranspositionTable transpositionTable, int threshold) {
+        this.board = board;
+        this.transpositionTable = transpositionTable;
+        this.threshold = threshold;
+        moveBuffers = new int[MAX_PLY][Game.MAX_MOVES];
+        moveScores = new int[MAX_PLY][Game.MAX_MOVES];
+        killers = new int[MAX_PLY][2];
+        history = new int[64 * 64];
+        counterMoves = new int[64 * 64];
+        iterationNodes = new long[MAX_PLY];
+        timeManager = new TimeManager();
+        bitboards = new Bitboard[MAX_PLY + 1];
+        for (int i = 0; i <= MAX_PLY; i++) {
+            bitboards[i] = new Bitboard();
+        }
+    }
+
+    // Iterative deepening from startDepth, helpers start at different depths
+    // so that they don't all search the same tree at the same time
+    int think(int startDepth, int col, int lastMove, long startTime) {
+        return think(startDepth, 100, col, lastMove, startTime);
+    }
+
+    int think(int startDepth, int endDepth, int col, int lastMove, long startTime) {
+        int depth = startDepth;
+        reset(startTime, null, nodeLimit);
+        timeManager.start(startTime, threshold);
+        resetCounters();
+        bestMove = Move.NONE;
+        completedMove = Move.NONE;
+        completedDepth = 0;
+        score = 0;
+        Arrays.fill(iterationNodes, 0);
+        ageHistory();
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+        while (!runOutOfTime() && depth <= endDepth) {
+            // Aspiration window around the last score, widened on the side it fails on
+            int delta = ASPIRATION_WINDOW;
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            if (depth > startDepth && Math.abs(score) < INFINITY) {
+                alpha = Math.max(score - delta, -INFINITY);
+                beta = Math.min(score + delta, INFINITY);
+            }
+            // A move that failed high is kept for the search again with the wider window
+            rootMove = Move.NONE;
+            while (true) {
+                rootWinningMove = false;
+                timedOut = false;
+                int eval = negamax(depth - 1, alpha, beta, col, 0, lastMove, true);
+                if (timedOut) {
+                    break;
+                }
+                if (rootWinningMove) {
+                    score = eval;
+                    break;
+                }
+                delta *= 4;
+                if (eval <= alpha && alpha > -INFINITY) {
+                    rootMove = Move.NONE;
+                    alpha = Math.max(eval - delta, -INFINITY);
+                } else if (eval >= beta && beta < INFINITY) {
+                    beta = Math.min(eval + delta, INFINITY);
+                } else {
+                    score = eval;
+                    break;
+                }
+            }
+            // A cut short iteration only counts if a move was searched to the end and beat the
+            // first, the previous best
+            if (timedOut && bestMove != Move.NONE && rootFirstMove != bestMove) {
+                rootMove = Move.NONE;
+            }
+            if (rootMove != Move.NONE) {
+                bestMove = rootMove;
+                if (!timedOut) {
+                    completedMove = rootMove;
+                    completedDepth = depth;
+                    iterationNodes[depth] = nodes;
+                    if (listener != null) {
+                        listener.accept(new SearchInfo(depth, score, nodes,
+                                timeManager.elapsed(), principalVariation(col, lastMove, depth)));
+                    }
+                }
+                if (rootWinningMove) {
+                    break;
+                }
+            }
+            if (!timedOut && timeManager.stopAfterIteration(bestMove, nodes)) {
+                break;
+            }
+            depth++;
+        }
+        return bestMove;
+    }
+
+    void stop() {
+        stop = true;
+    }
+
+    // A stop that came before the search started still counts. Sibling searches take the
+    // root's node limit, it applies to the nodes of all of them together
+    void reset(long startTime, ParallelSearch.Split split, long nodeLimit) {
+        timeManager.setLimits(startTime, threshold);
+        this.split = split;
+        this.nodeLimit = nodeLimit;
+        timedOut = false;
+        clockCountdown = TimeManager.CHECK_NODES;
+        hardLimitReached = false;
+    }
+
+    // Pondering searches without a limit until the opponent plays the expected move
+    void setTimeLimit(long startTime, int threshold) {
+        this.threshold = threshold;
+        timeManager.setLimits(startTime, threshold);
+    }
+
+    void resetCounters() {
+        nodes = 0;
+        maxDepth = 0;
+        hits = 0;
+        bitbaseHits = 0;
+        raceHits = 0;
+        reductions = 0;
+        researches = 0;
+        futilityPrunes = 0;
+    }
+
+    void setBoard(Board board) {
+        this.board = board;
+    }
+
+    // Searches until the threshold, without stopping early after an iteration
+    void setFixedTime(boolean fixedTime) {
+        timeManager.setFixedTime(fixedTime);
+    }
+
+    // Stops the search after this many nodes as well as after the time threshold
+    void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    // Called from the searching thread after every completed iteration
+    void setListener(Consumer<SearchInfo> listener) {
+        this.listener = listener;
+    }
+
+    void setParallel(ParallelSearch parallel) {
+        this.parallel = parallel;
+    }
+
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    int getBestMove() {
+        return bestMove;
+    }
+
+    int getCompletedMove() {
+        return completedMove;
+    }
+
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // From the point of view of the side to move at the root
+    int getScore() {
+        return score;
+    }
+
+    boolean isWinningMove() {
+        return rootWinningMove;
+    }
+
+    long getElapsed() {
+        return timeManager.elapsed();
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getBitbaseHits() {
+        return bitbaseHits;
+    }
+
+    int getRaceHits() {
+        return raceHits;
+    }
+
+    long getReductions() {
+        return reductions;
+    }
+
+    // Reduced moves that failed high and were searched again at full depth
+    long getResearches() {
+        return researches;
+    }
+
+    long getFutilityPrunes() {
+        return futilityPrunes;
+    }
+
+    // Nodes searched up to the end of the iteration at this depth
+    long getIterationNodes(int depth) {
+        return iterationNodes[depth];
+    }
+
+    // Follows the hash moves from the root, stops at the first one that's missing or invalid
+    int[] principalVariation(int col, int lastMove, int maxLength) {
+        int[] pv = new int[maxLength];
+        Bitboard bb = new Bitboard();
+        int length = 0;
+        while (length < maxLength) {
+            bb.set(board);
+            if (bb.whiteOnRank8() != 0 || bb.blackOnRank1() != 0
+                    || board.getWhitePieces() == 0 || board.getBlackPieces() == 0) {
+                break;
+            }
+            long entry = transpositionTable.probe(board.getHash(), bb.w, bb.b);
+            if (entry == TranspositionTable.MISS || !Game.isValidMove(bb, col,
+                    board.getEnPassantColumn(lastMove), TranspositionTable.move(entry))) {
+                break;
+            }
+            lastMove = TranspositionTable.move(entry);
+            board.applyMove(lastMove);
+            pv[length++] = lastMove;
+            col = -col;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            board.unapplyMove(pv[i]);
+        }
+        return Arrays.copyOf(pv, length);
+    }
+
+    // Negamax, the score is from the point of view of the side to move (col)
+    int negamax(int depth, int alpha, int beta, int col, int ply, int lastMove, boolean pvNode) {
+        Bitboard bb = bitboards[ply].set(board);
+        int alphaOrig = alpha;
+        int betaOrig = beta;
+
+        nodes++;
+        // Every node counts, including the ones that return before checking the time
+        if (--clockCountdown <= 0) {
+            clockCountdown = TimeManager.CHECK_NODES;
+            hardLimitReached = timeManager.hardLimitReached()
+                    || (parallel != null && nodeLimit != Long.MAX_VALUE && parallel.countNodes() >= nodeLimit);
+        }
+        if (ply > maxDepth) {
+            maxDepth = ply;
+        }
+
+        if (board.getWhitePieces() == 0 || bb.blackOnRank1() != 0) {
+            return -INFINITY * col;
+        }
+        if (board.getBlackPieces() == 0 || bb.whiteOnRank8() != 0) {
+            return INFINITY * col;
+        }
+
+        // Stalemate, no moves are generated until the search needs them
+        int enPassantColumn = board.getEnPassantColumn(lastMove);
+        if (!Game.hasValidMoves(bb, col, enPassantColumn)) {
+            return 0;
+        }
+
+        // Bitbases, exact so they come before the winning move guess. The root needs a move
+        if (ply > 0 && Bitbases.covers(board.getWhitePieces(), board.getBlackPieces())) {
+            int result = Bitbases.probe(bb.w, bb.b, col, enPassantColumn);
+            if (result != Bitbases.UNKNOWN) {
+                bitbaseHits++;
+                return (result == Bitbases.WIN) ? BITBASE_WIN : (result == Bitbases.LOSS) ? -BITBASE_WIN : 0;
+            }
+        }
+
+        // Races decided by a passed pawn, exact like the bitbases. The root needs a move to play
+        long us = (col == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (col == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        int race = Race.resolve(us, them, enPassantColumn);
+        if (race == Race.LOSS && ply > 0) {
+            raceHits++;
+            return -INFINITY;
+        }
+        if (race == Race.WIN) {
+            raceHits++;
+            if (ply == 0) {
+                rootMove = push(Race.fastestPasser(us, them), us | them, col);
+                rootWinningMove = true;
+            }
+            return INFINITY;
+        }
+        // Terminal Node. A breakthrough is only a guess, so it's a bonus that deeper searches
+        // of the position have to confirm
+        if (depth == 0 || runOutOfTime()) {
+            int eval = Evaluation.staticEval(board) * col;
+            if (race == Race.UNKNOWN && Race.breakthrough(us, them) >= 0) {
+                eval += BREAKTHROUGH_BONUS;
+            }
+            return eval;
+        }
+
+        // Transposition Table
+        long hash = board.getHash();
+        long ttEntry = transpositionTable.probe(hash, bb.w, bb.b);
+        int hashMove = Move.NONE;
+        if (ttEntry != TranspositionTable.MISS
+                && Game.isValidMove(bb, col, enPassantColumn, TranspositionTable.move(ttEntry))) {
+            hashMove = TranspositionTable.move(ttEntry);
+            if (TranspositionTable.depth(ttEntry) > depth) {
+                hits++;
+                int ttEval = TranspositionTable.eval(ttEntry);
+                switch (TranspositionTable.flag(ttEntry)) {
+                    case TranspositionTable.LOWERBOUND:
+                        alpha = Math.max(alpha, ttEval);
+                        break;
+                    case TranspositionTable.UPPERBOUND:
+                        beta = Math.min(beta, ttEval);
+                        break;
+                    case TranspositionTable.EXACT:
+                        alpha = ttEval;
+                        beta = ttEval;
+                        break;
+                }
+                if (alpha >= beta) {
+                    if (ply == 0) {
+                        rootMove = hashMove;
+                    }
+                    return ttEval;
+                }
+            }
+        }
+
+        // Futility: quiet moves that can't lift the static eval above alpha aren't searched
+        int futilityEval = -INFINITY;
+        if (!pvNode && ply > 0 && depth <= FUTILITY_DEPTH && Math.abs(alpha) < BITBASE_WIN - MAX_PLY) {
+            int distance = raceDistance(bb);
+            if (RACE_MARGIN[distance] > 0) {
+                int futility = Evaluation.staticEval(board) * col + depth * RACE_MARGIN[distance];
+                if (futility <= alpha) {
+                    futilityEval = futility;
+                }
+            }
+        }
+
+        int bestEval = -INFINITY;
+        int bestInitialEval = -INFINITY;
+        int eval;
+        int initialEval;
+        int move;
+        // Staged: each stage is generated once the moves before it have been searched
+        // without a cutoff. Not stalemated, so one of them has a move
+        int[] moves = moveBuffers[ply];
+        int stage = HASH_MOVE_STAGE;
+        int moveCount = 0;
+        while (moveCount == 0) {
+            moveCount = generate(stage++, bb, col, enPassantColumn, hashMove, ply, lastMove, 0);
+        }
+        int bestMove = moves[0];
+        int[] splitEvals = null;
+        int[] splitInitialEvals = null;
+        for (int i = 0; ; i++) {
+            while (i == moveCount && stage <= PUSH_STAGE) {
+                moveCount = generate(stage++, bb, col, enPassantColumn, hashMove, ply, lastMove, moveCount);
+            }
+            if (i == moveCount) {
+                break;
+            }
+            move = moves[i];
+            if (splitEvals != null) {
+                eval = splitEvals[i];
+                initialEval = splitInitialEvals[i];
+            } else {
+                // No pawn capture loses material, so captures are never pruned
+                boolean quiet = i > 0 && !Move.isCapture(move) && !isRacePush(bb, move, col);
+                if (quiet && futilityEval > -INFINITY) {
+                    futilityPrunes++;
+                    bestEval = Math.max(bestEval, futilityEval);
+                    continue;
+                }
+                board.applyMove(move);
+                initialEval = tieBreakEval(board, bitboards[ply + 1], move, ply) * col;
+                if (i == 0) {
+                    eval = -negamax(depth - 1, -beta, -alpha, -col, ply + 1, move, pvNode);
+                } else {
+                    int reduction = 0;
+                    if (!pvNode && quiet && depth >= LMR_MIN_DEPTH && i >= LMR_MOVES
+                            && moveScores[ply][i] < COUNTER_MOVE_SCORE) {
+                        reduction = 1;
+                        reductions++;
+                    }
+                    // Principal variation search: prove the move is worse with a null window,
+                    // search it again with the full window if it isn't
+                    eval = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, -col, ply + 1, move, false);
+                    if (reduction > 0 && eval > alpha) {
+                        researches++;
+                        eval = -negamax(depth - 1, -alpha - 1, -alpha, -col, ply + 1, move, false);
+                    }
+                    if (eval > alpha && eval < beta) {
+                        eval = -negamax(depth - 1, -beta, -alpha, -col, ply + 1, move, pvNode);
+                    }
+                }
+                board.unapplyMove(move);
+            }
+            if (ply == 0) {
+                if (i == 0) {
+                    rootFirstMove = move;
+                }
+                if (!timedOut && eval > alpha) {
+                    rootMove = move;
+                }
+            }
+            if (eval > bestEval || (eval == bestEval && initialEval > bestInitialEval)) {
+                bestEval = eval;
+                bestMove = move;
+                bestInitialEval = initialEval;
+            }
+            alpha = Math.max(alpha, bestEval);
+            if (alpha >= beta) {
+                if (!Move.isCapture(move)) {
+                    updateQuietCutoff(move, depth, ply, lastMove);
+                }
+                break;
+            }
+            if (i == 0 && pvNode && parallel != null && parallel.canSplit(depth, ply)) {
+                // The siblings are shared out together, so all of them are needed
+                while (stage <= PUSH_STAGE) {
+                    moveCount = generate(stage++, bb, col, enPassantColumn, hashMove, ply, lastMove, moveCount);
+                }
+                if (moveCount > 1) {
+                    splitEvals = new int[moveCount];
+                    splitInitialEvals = new int[moveCount];
+                    if (parallel.searchSiblings(board, moves, moveCount, depth - 1, alpha, beta,
+                            col, ply + 1, split, splitEvals, splitInitialEvals)) {
+                        timedOut = true;
+                    }
+                }
+            }
+        }
+
+        int flag;
+        if (bestEval <= alphaOrig) {
+            flag = TranspositionTable.UPPERBOUND;
+        } else if (bestEval >= betaOrig) {
+            flag = TranspositionTable.LOWERBOUND;
+        } else {
+            flag = TranspositionTable.EXACT;
+        }
+        // Don't store results from a search that was cut short
+        if (!timedOut) {
+            transpositionTable.store(hash, bb.w, bb.b, depth, flag, bestEval, bestMove);
+        }
+        if (ply == 0 && !timedOut) {
+            rootMove = bestMove;
+        }
+        return bestEval;
+    }
+
+    // Breaks ties between moves after they have been applied, the root can afford
+    // the eval that knows about pawn safety, everywhere else uses the accumulator
+    static int tieBreakEval(Board board, Bitboard bb, int move, int ply) {
+        if (ply == 0) {
+            return Evaluation.initialEval(bb.set(board), board.getEnPassantColumn(move));
+        }
+        return board.getEval();
+    }
+
+    // Appends the moves of one stage from count, best first, and returns the new count.
+    // The hash move was validated from the bitboards and is left out of the later stages
+    private int generate(int stage, Bitboard bb, int col, int enPassantColumn, int hashMove, int ply,
+                         int lastMove, int count) {
+        int[] moves = moveBuffers[ply];
+        int[] scores = moveScores[ply];
+        if (stage == HASH_MOVE_STAGE) {
+            if (hashMove != Move.NONE) {
+                moves[count] = hashMove;
+                scores[count++] = HASH_MOVE_SCORE;
+            }
+            return count;
+        }
+        int start = count;
+        int end = (stage == CAPTURE_STAGE) ? Game.getCaptures(bb, col, enPassantColumn, moves, count)
+                : Game.getPushes(bb, col, moves, count);
+        int counterMove = (lastMove != Move.NONE) ? counterMoves[squares(lastMove)] : Move.NONE;
+        for (int i = start; i < end; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                continue;
+            }
+            int score;
+            if (Move.isCapture(move)) {
+                score = CAPTURE_SCORE + staticExchange(bb, move, col);
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else if (move == counterMove) {
+                score = COUNTER_MOVE_SCORE;
+            } else {
+                score = history[squares(move)];
+            }
+            // Insertion sort, stable so equal moves keep the generation order
+            int j = count;
+            while (j > start && scores[j - 1] < score) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            moves[j] = move;
+            count++;
+        }
+        return count;
+    }
+
+    private void updateQuietCutoff(int move, int depth, int ply, int lastMove) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (lastMove != Move.NONE) {
+            counterMoves[squares(lastMove)] = move;
+        }
+        int index = squares(move);
+        history[index] += depth * depth;
+        if (history[index] > MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    // Older cutoffs count for less
+    private void ageHistory() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    private static int squares(int move) {
+        return move & 0xfff;
+    }
+
+    // Pawns won by the capture, see Bitboard.staticExchange
+    private static int staticExchange(Bitboard bb, int move, int col) {
+        int flip = (col == Color.WHITE) ? 0 : 56;
+        long us = (col == Color.WHITE) ? bb.w : Bitboard.flip(bb.b);
+        long them = (col == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        return Bitboard.staticExchange(us, them, Move.from(move) ^ flip, Move.to(move) ^ flip);
+    }
+
+    // Pushes that make a passed pawn or reach the sixth rank decide races, they are never
+    // reduced or pruned
+    private static boolean isRacePush(Bitboard bb, int move, int col) {
+        int to = (col == Color.WHITE) ? Move.to(move) : Move.to(move) ^ 56;
+        long them = (col == Color.WHITE) ? bb.b : Bitboard.flip(bb.w);
+        return to / 8 >= 5 || Bitboard.isPassedPawn(them, to);
+    }
+
+    // Ranks left to go for the most advanced pawn of either side
+    private static int raceDistance(Bitboard bb) {
+        int white = 7 - (63 - Long.numberOfLeadingZeros(bb.w)) / 8;
+        int black = Long.numberOfTrailingZeros(bb.b) / 8;
+        return Math.min(white, black);
+    }
+
+    // The push of the pawn on the normalised square, which has to have the square in front of
+    // it empty. A double push if there is one
+    private static int push(int pawn, long occupied, int col) {
+        int flip = (col == Color.WHITE) ? 0 : 56;
+        int to = pawn + 8;
+        if (pawn / 8 == 1 && ((occupied >>> (pawn + 16)) & 1) == 0) {
+            to += 8;
+        }
+        return Move.pack(pawn ^ flip, to ^ flip, false, false);
+    }
+
+    // The clock is read every CHECK_NODES nodes in negamax, the flags are checked at every call
+    private boolean runOutOfTime() {
+        if (stop || (split != null && split.isAborted()) || nodes >= nodeLimit
+                || hardLimitReached) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+}
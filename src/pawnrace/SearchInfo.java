@@ -0,0 +1,52 @@
+package pawnrace;
+
+// Progress of a search, reported at the end of every completed iteration
+class SearchInfo {
+
+    private final int depth;
+    private final int score;
+    private final long nodes;
+    private final long time;
+    private final int[] pv;
+
+    SearchInfo(int depth, int score, long nodes, long time, int[] pv) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.time = time;
+        this.pv = pv;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    // From the point of view of the side to move at the root
+    int getScore() {
+        return score;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    // Milliseconds since the search started
+    long getTime() {
+        return time;
+    }
+
+    // Packed moves from the root
+    int[] getPV() {
+        return pv;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth).append(" score ").append(score)
+                .append(" nodes ").append(nodes).append(" time ").append(time).append(" pv");
+        for (int move : pv) {
+            sb.append(' ').append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+}
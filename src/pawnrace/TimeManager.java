@@ -0,0 +1,88 @@
+package pawnrace;
+
+// Time for one move. The hard limit (the threshold) aborts the search wherever it is, the
+// clock is only read every CHECK_NODES nodes for it. After every completed iteration the
+// search asks whether to start the next one: not past the soft limit, which shrinks while
+// the best move stays the same and grows when it has just changed, and only if the next
+// iteration can finish before the hard limit going by the effective branching factor.
+// With a fixed time (UCI movetime) only the hard limit applies.
+class TimeManager {
+
+    static final int CHECK_NODES = 1024;
+    private static final int SOFT_PERCENT = 50;
+    private static final int STABLE_ITERATIONS = 3;
+
+    // Written by the thread that ends pondering while the search reads them
+    private volatile long startTime;
+    private volatile long softLimit;
+    private volatile long hardLimit;
+    private boolean fixedTime;
+
+    private int bestMove;
+    private int stableIterations;
+    private long iterationEnd;
+    private long totalNodes;
+    private long lastIterationNodes;
+    private double branchingFactor;
+
+    void start(long startTime, int threshold) {
+        setLimits(startTime, threshold);
+        bestMove = Move.NONE;
+        stableIterations = 0;
+        iterationEnd = System.currentTimeMillis();
+        totalNodes = 0;
+        lastIterationNodes = 0;
+        branchingFactor = 0;
+    }
+
+    // Keeps what was seen of the iterations so far, for a ponder hit
+    void setLimits(long startTime, int threshold) {
+        this.startTime = startTime;
+        softLimit = (long) threshold * SOFT_PERCENT / 100;
+        hardLimit = threshold;
+    }
+
+    void setFixedTime(boolean fixedTime) {
+        this.fixedTime = fixedTime;
+    }
+
+    long elapsed() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    boolean hardLimitReached() {
+        return elapsed() > hardLimit;
+    }
+
+    // Called after every completed iteration with the best move and the nodes searched so far
+    boolean stopAfterIteration(int move, long nodes) {
+        long now = System.currentTimeMillis();
+        long iterationNodes = nodes - totalNodes;
+        long iterationTime = now - iterationEnd;
+        // Iterations answered from the table say nothing about the tree
+        if (lastIterationNodes >= CHECK_NODES) {
+            branchingFactor = (double) iterationNodes / lastIterationNodes;
+        }
+        stableIterations = (move == bestMove) ? stableIterations + 1 : 0;
+        bestMove = move;
+        iterationEnd = now;
+        totalNodes = nodes;
+        lastIterationNodes = iterationNodes;
+
+        if (fixedTime) {
+            return false;
+        }
+        long elapsed = now - startTime;
+        long soft = softLimit;
+        if (stableIterations >= STABLE_ITERATIONS) {
+            soft /= 2;
+        } else if (stableIterations == 0) {
+            soft = Math.min(hardLimit, soft * 3 / 2);
+        }
+        return elapsed >= soft || elapsed + (long) (iterationTime * branchingFactor) > hardLimit;
+    }
+
+    double getBranchingFactor() {
+        return branchingFactor;
+    }
+}
@@ -0,0 +1,232 @@
+package pawnrace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Self-play between two engine settings, to see whether a change is worth its time or nodes.
+// Games run in parallel, each with its own boards, Games and tables. The openings cycle
+// through the 64 gap combinations, every one played twice with the colours swapped.
+// Reports A's Elo with a 95% error bar and stops early once a sequential probability ratio
+// test accepts that A is elo0 (H0) or elo1 (H1) stronger than B.
+// An engine is given as comma separated settings, e.g. "time=100,hash=16,book=book.bin":
+// time (ms per move), nodes (per move), hash (MB), threads and book.
+class Tournament {
+
+    static final int DEFAULT_TIME = 100;
+    static final int DEFAULT_HASH_SIZE = 16; // MB
+
+    // Error rates of the test, false positives and false negatives
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+    private static final int REPORT_GAMES = 16;
+    private static final PrintStream SILENT = new PrintStream(OutputStream.nullOutputStream());
+
+    // One side's settings
+    static class Engine {
+        int time = DEFAULT_TIME;
+        long nodes = Long.MAX_VALUE;
+        int hashSize = DEFAULT_HASH_SIZE;
+        int threads = 1;
+        OpeningBook book;
+
+        static Engine parse(String settings) throws IOException {
+            Engine engine = new Engine();
+            for (String setting : settings.split(",")) {
+                if (setting.isEmpty()) {
+                    continue;
+                }
+                String[] pair = setting.split("=", 2);
+                String value = (pair.length > 1) ? pair[1] : "";
+                switch (pair[0]) {
+                    case "time":
+                        engine.time = Integer.parseInt(value);
+                        break;
+                    case "nodes":
+                        engine.nodes = Long.parseLong(value);
+                        break;
+                    case "hash":
+                        engine.hashSize = Integer.parseInt(value);
+                        break;
+                    case "threads":
+                        engine.threads = Integer.parseInt(value);
+                        break;
+                    case "book":
+                        engine.book = new OpeningBook(Paths.get(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown engine setting: " + setting);
+                }
+            }
+            return engine;
+        }
+
+        private Game newGame(char whiteGap, char blackGap) {
+            Game game = new Game(new Board(whiteGap, blackGap), time, hashSize);
+            game.setThreads(threads);
+            game.setNodeLimit(nodes);
+            game.setOpeningBook(book);
+            game.setOutput(SILENT);
+            return game;
+        }
+    }
+
+    private final Engine a;
+    private final Engine b;
+    private final double elo0;
+    private final double elo1;
+    private final boolean sprt;
+
+    private int wins;
+    private int draws;
+    private int losses;
+
+    // Without bounds (sprt false) it plays all the games
+    Tournament(Engine a, Engine b, boolean sprt, double elo0, double elo1) {
+        this.a = a;
+        this.b = b;
+        this.sprt = sprt;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+    }
+
+    void run(int games, int threads, PrintStream out) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Double> results = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < games; i++) {
+            int pair = (i / 2) % 64;
+            char whiteGap = (char) ('a' + pair / 8);
+            char blackGap = (char) ('a' + pair % 8);
+            boolean aIsWhite = i % 2 == 0;
+            results.submit(() -> play(whiteGap, blackGap, aIsWhite));
+        }
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < games; i++) {
+                double score = results.take().get();
+                if (score == 1) {
+                    wins++;
+                } else if (score == 0) {
+                    losses++;
+                } else {
+                    draws++;
+                }
+                int decision = sprt ? decision() : 0;
+                if ((i + 1) % REPORT_GAMES == 0 || i + 1 == games || decision != 0) {
+                    out.println(this + ", " + (System.currentTimeMillis() - start) / 1000 + " s");
+                }
+                if (decision != 0) {
+                    out.println((decision > 0) ? "H1 accepted, A is stronger" : "H0 accepted, A isn't stronger");
+                    break;
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("The tournament failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // A's score in the game, 1, 0.5 or 0
+    private double play(char whiteGap, char blackGap, boolean aIsWhite) {
+        Game gameA = a.newGame(whiteGap, blackGap);
+        Game gameB = b.newGame(whiteGap, blackGap);
+        try {
+            Game white = aIsWhite ? gameA : gameB;
+            Game black = aIsWhite ? gameB : gameA;
+            while (true) {
+                Game mover = (white.getCurrentPlayer() == Color.WHITE) ? white : black;
+                Game other = (mover == white) ? black : white;
+                mover.makeAIMove();
+                int winner = mover.getWinner();
+                if (winner == Color.DRAWFLAG) {
+                    return 0.5;
+                }
+                other.makeGUIMove(mover.getLastMove().toString());
+                if (winner != Color.NONE) {
+                    return ((winner == Color.WHITE) == aIsWhite) ? 1 : 0;
+                }
+            }
+        } finally {
+            gameA.close();
+            gameB.close();
+        }
+    }
+
+    private int games() {
+        return wins + draws + losses;
+    }
+
+    private double score() {
+        return (wins + 0.5 * draws) / games();
+    }
+
+    // Of one game's score around the mean
+    private double variance() {
+        double score = score();
+        return (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                + losses * score * score) / games();
+    }
+
+    static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    // Half the 95% confidence interval of the Elo
+    private double eloError() {
+        double margin = 1.96 * Math.sqrt(variance() / games());
+        double high = Math.min(score() + margin, 1 - 1e-9);
+        double low = Math.max(score() - margin, 1e-9);
+        return (elo(high) - elo(low)) / 2;
+    }
+
+    // Log-likelihood ratio of H1 to H0, with the game scores taken as normally distributed
+    private double llr() {
+        double variance = variance();
+        if (variance == 0) {
+            return 0;
+        }
+        double s0 = score(elo0);
+        double s1 = score(elo1);
+        return games() * (s1 - s0) * (2 * score() - s0 - s1) / (2 * variance);
+    }
+
+    // 1 for H1, -1 for H0, 0 to carry on
+    private int decision() {
+        double llr = llr();
+        if (llr >= Math.log((1 - BETA) / ALPHA)) {
+            return 1;
+        }
+        if (llr <= Math.log(BETA / (1 - ALPHA))) {
+            return -1;
+        }
+        return 0;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(games()).append(" games: +").append(wins).append(" -").append(losses).append(" =").append(draws);
+        if (score() > 0 && score() < 1) {
+            sb.append(String.format(", Elo %.1f +/- %.1f", elo(score()), eloError()));
+        }
+        if (sprt) {
+            sb.append(String.format(", LLR %.2f (%.2f, %.2f) [%.0f, %.0f]", llr(),
+                    Math.log(BETA / (1 - ALPHA)), Math.log((1 - BETA) / ALPHA), elo0, elo1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package pawnrace;
+
+// data: move (14 bits) | score (18 bits) | depth (8 bits) | flag (2 bits) | generation (8 bits)
+interface TranspositionTable {
+
+    long MISS = 0;
+
+    int EXACT = 0;
+    int LOWERBOUND = 1;
+    int UPPERBOUND = 2;
+
+    int SCORE_OFFSET = 1 << 17;
+
+    // Returns the packed data of the entry or MISS
+    long probe(long hash, long w, long b);
+
+    void store(long hash, long w, long b, int depth, int flag, int eval, int bestMove);
+
+    void newSearch();
+
+    void clear();
+
+    default void close() {
+    }
+
+    static int move(long data) {
+        return (int) (data & 0x3fff);
+    }
+
+    static int eval(long data) {
+        return (int) ((data >>> 14) & 0x3ffff) - SCORE_OFFSET;
+    }
+
+    static int depth(long data) {
+        return (int) ((data >>> 32) & 0xff);
+    }
+
+    static int flag(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    static int generation(long data) {
+        return (int) ((data >>> 42) & 0xff);
+    }
+
+    static long pack(int depth, int flag, int eval, int bestMove, int generation) {
+        return (bestMove & 0x3fff)
+                | ((long) (eval + SCORE_OFFSET) << 14)
+                | ((long) (depth & 0xff) << 32)
+                | ((long) flag << 40)
+                | ((long) generation << 42);
+    }
+}
@@ -1,42 +1,61 @@
-import java.security.*;
-
-
-// Turns out using Zobrist hashing is not too much better
-// than storing 2 longs along with a boolean which would result
-// in a 0 probability of collisions
-// Using Zobrist, however would result in a greater maximum depth searched...
-// Both options have their advantages and disadvantages
-// I have chosen to use a combination of both for safety
-class Zobrist {
-    static long zArray[][] = new long[2][64];
-    static long zBlackMove;
-
-    private static long random64() {
-        SecureRandom random = new SecureRandom();
-        return random.nextLong();
-    }
-
-    static void GenerateRandomNumbers() {
-        for (int color = 0; color < 2; color++) {
-            for (int i = 0; i < 64; i++) {
-                zArray[color][i] = random64();
-            }
-        }
-        zBlackMove = random64();
-    }
-
-    static long getZobristHash(int[] board, boolean blackToPlay) {
-        long hash = 0;
-        for (int i = 0; i < 64; i++) {
-            if (board[i] == 1) {
-                hash ^= zArray[0][i];
-            } else if (board[i] == -1) {
-                hash ^= zArray[1][i];
-            }
-        }
-        if (blackToPlay) {
-            hash ^= zBlackMove;
-        }
-        return hash;
-    }
+package pawnrace;
+
+import java.util.Random;
+
+
+// Turns out using Zobrist hashing is not too much better
+// than storing 2 longs along with a boolean which would result
+// in a 0 probability of collisions
+// Using Zobrist, however would result in a greater maximum depth searched...
+// Both options have their advantages and disadvantages
+// I have chosen to use a combination of both for safety
+// The keys come from a fixed seed so anything persisted by hash stays valid between runs
+class Zobrist {
+    private static final long SEED = 0x2018_0314_5a0b_715bL;
+
+    static long zArray[][] = new long[2][64];
+    static long zBlackMove;
+
+    private static Random random;
+
+    private static long random64() {
+        return random.nextLong();
+    }
+
+    static void GenerateRandomNumbers() {
+        random = new Random(SEED);
+        for (int color = 0; color < 2; color++) {
+            for (int i = 0; i < 64; i++) {
+                zArray[color][i] = random64();
+            }
+        }
+        zBlackMove = random64();
+    }
+
+    // Identifies the key set, stored alongside persisted tables
+    static long signature() {
+        long signature = zBlackMove;
+        for (int color = 0; color < 2; color++) {
+            for (int i = 0; i < 64; i++) {
+                signature = signature * 31 + zArray[color][i];
+            }
+        }
+        return signature;
+    }
+
+    static long getZobristHash(int[] board, boolean blackToPlay) {
+        long hash = 0;
+        for (int i = 0; i < 64; i++) {
+            // Indexed like Board.applyMove: black = 0, white = 1
+            if (board[i] == Color.WHITE) {
+                hash ^= zArray[1][i];
+            } else if (board[i] == Color.BLACK) {
+                hash ^= zArray[0][i];
+            }
+        }
+        if (blackToPlay) {
+            hash ^= zBlackMove;
+        }
+        return hash;
+    }
 }
\ No newline at end of file